@@ -1,9 +1,13 @@
 package com.finance.auth.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 public class AuthResponse {
     public String token;
     public String username;
     public String role;
+    public String refreshToken;
     
     public AuthResponse() {
     }
@@ -13,4 +17,9 @@ public class AuthResponse {
         this.username = username;
         this.role = role;
     }
+    
+    public AuthResponse(String token, String username, String role, String refreshToken) {
+        this(token, username, role);
+        this.refreshToken = refreshToken;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.finance.auth.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class RefreshRequest {
+    public String refreshToken;
+    
+    public RefreshRequest() {
+    }
+    
+    public RefreshRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -1,5 +1,8 @@
 package com.finance.auth.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 public class RegisterRequest {
     public String username;
     public String password;
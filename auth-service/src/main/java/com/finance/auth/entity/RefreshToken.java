@@ -0,0 +1,140 @@
+package com.finance.auth.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Entidade RefreshToken - Token de renovação do access token
+ * Guarda apenas o SHA-256 do token: como ele tem 256 bits aleatórios, um hash
+ * rápido basta (não há senha fraca para proteger com BCrypt).
+ * Cada uso gera um novo token e revoga o anterior (rotação)
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = @Index(name = "idx_refresh_tokens_user", columnList = "userId"))
+public class RefreshToken extends PanacheEntityBase {
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
+    /**
+     * SHA-256 do token, em base64url (43 caracteres)
+     */
+    @Id
+    @Column(length = 43)
+    public String tokenHash;
+    
+    /**
+     * ID do usuário dono do token
+     */
+    @Column(nullable = false)
+    public Long userId;
+    
+    /**
+     * Data de expiração
+     */
+    @Column(nullable = false)
+    public Instant expiresAt;
+    
+    /**
+     * Data da revogação (null enquanto válido)
+     */
+    public Instant revokedAt;
+    
+    /**
+     * Construtor padrão (necessário para JPA)
+     */
+    public RefreshToken() {
+    }
+    
+    /**
+     * Emite um novo refresh token para o usuário
+     * Aproveita para remover os tokens já expirados dele
+     * 
+     * @param userId ID do usuário
+     * @param ttl Validade do token
+     * @return Token em texto plano (só existe na resposta ao cliente)
+     */
+    public static String issue(Long userId, Duration ttl) {
+        Instant now = Instant.now();
+        delete("userId = ?1 and expiresAt < ?2", userId, now);
+        
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+        
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.tokenHash = hash(token);
+        refreshToken.userId = userId;
+        refreshToken.expiresAt = now.plus(ttl);
+        refreshToken.persist();
+        return token;
+    }
+    
+    /**
+     * Consome um refresh token: revoga-o com um único UPDATE condicional, de modo
+     * que requisições concorrentes com o mesmo token não renovem duas vezes.
+     * A reapresentação de um token já revogado indica vazamento: todos os
+     * tokens do usuário são revogados
+     * 
+     * @param token Token em texto plano
+     * @return ID do usuário, ou null se o token for inválido, expirado ou revogado
+     */
+    public static Long consume(String token) {
+        String tokenHash = hash(token);
+        Instant now = Instant.now();
+        
+        int updated = update("revokedAt = ?1 where tokenHash = ?2 and revokedAt is null and expiresAt > ?1",
+                             now, tokenHash);
+        RefreshToken refreshToken = findById(tokenHash);
+        if (refreshToken == null) {
+            return null;
+        }
+        if (updated == 0) {
+            if (refreshToken.expiresAt.isAfter(now)) {
+                revokeAll(refreshToken.userId);
+            }
+            return null;
+        }
+        return refreshToken.userId;
+    }
+    
+    /**
+     * Revoga um refresh token (logout)
+     * 
+     * @param token Token em texto plano
+     * @return true se o token estava válido
+     */
+    public static boolean revoke(String token) {
+        return update("revokedAt = ?1 where tokenHash = ?2 and revokedAt is null",
+                      Instant.now(), hash(token)) > 0;
+    }
+    
+    /**
+     * Revoga todos os refresh tokens válidos de um usuário
+     * 
+     * @param userId ID do usuário
+     * @return Quantidade de tokens revogados
+     */
+    public static int revokeAll(Long userId) {
+        return update("revokedAt = ?1 where userId = ?2 and revokedAt is null", Instant.now(), userId);
+    }
+    
+    /**
+     * SHA-256 do token em base64url
+     */
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.finance.auth.entity;
 
+import com.finance.auth.security.UsernameFilter;
+import io.quarkus.arc.Arc;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
-import io.quarkus.elytron.security.common.BcryptUtil;
 import jakarta.persistence.*;
+import java.util.stream.Stream;
 
 /**
  * Entidade User - Representa um usuário do sistema
@@ -37,27 +39,23 @@ public class User extends PanacheEntity {
     }
     
     /**
-     * Construtor com parâmetros
-     */
-    public User(String username, String password, String role) {
-        this.username = username;
-        this.password = BcryptUtil.bcryptHash(password);
-        this.role = role;
-    }
-    
-    /**
-     * Adiciona um novo usuário com senha criptografada
+     * Adiciona um novo usuário com a senha já criptografada
+     * O hash deve vir do PasswordHasher (pool BCrypt limitado), gerado fora da transação;
+     * é o único caminho de cadastro, para manter o filtro de usernames atualizado
      * 
      * @param username Nome de usuário
-     * @param password Senha em texto plano (será criptografada)
+     * @param passwordHash Hash BCrypt da senha
      * @param role Role do usuário
+     * @return Usuário criado
      */
-    public static void add(String username, String password, String role) {
+    public static User addHashed(String username, String passwordHash, String role) {
         User user = new User();
         user.username = username;
-        user.password = BcryptUtil.bcryptHash(password);
+        user.password = passwordHash;
         user.role = role != null ? role : "USER";
         user.persist();
+        usernameFilter().put(username);
+        return user;
     }
     
     /**
@@ -70,26 +68,37 @@ public class User extends PanacheEntity {
         return find("username", username).firstResult();
     }
     
-    /**
-     * Valida a senha do usuário
-     * 
-     * @param password Senha em texto plano
-     * @return true se a senha estiver correta
-     */
-    public boolean validatePassword(String password) {
-        return BcryptUtil.matches(password, this.password);
-    }
-    
     /**
      * Verifica se o username já existe
+     * Consulta primeiro o filtro de usernames em memória e só vai ao banco
+     * quando o filtro indica que o username pode existir
      * 
      * @param username Nome de usuário
      * @return true se já existir
      */
     public static boolean usernameExists(String username) {
+        if (!usernameFilter().mightContain(username)) {
+            return false;
+        }
         return count("username", username) > 0;
     }
     
+    /**
+     * Percorre todos os usernames cadastrados (usado para montar o filtro de usernames)
+     * Deve ser chamado dentro de uma transação
+     * 
+     * @return Stream de usernames
+     */
+    public static Stream<String> streamUsernames() {
+        return getEntityManager()
+                .createQuery("select u.username from User u", String.class)
+                .getResultStream();
+    }
+    
+    private static UsernameFilter usernameFilter() {
+        return Arc.container().instance(UsernameFilter.class).get();
+    }
+    
     @Override
     public String toString() {
         return "User{" +
@@ -0,0 +1,20 @@
+package com.finance.auth.metrics;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Quantidade de comandos SQL executados durante a requisição atual
+ */
+@RequestScoped
+public class RequestStatements {
+    
+    private int count;
+    
+    public void increment() {
+        count++;
+    }
+    
+    public int count() {
+        return count;
+    }
+}
@@ -0,0 +1,33 @@
+package com.finance.auth.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta cada comando SQL preparado pelo Hibernate na requisição atual
+ * (não altera o SQL). Comandos fora de uma requisição, como os da inicialização,
+ * não são contados
+ * O pacote metrics é igual no auth-service e no transaction-service (os serviços não
+ * compartilham módulo); alterações devem ser replicadas
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class StatementCounter implements StatementInspector {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // StatementInspector é Serializable, mas o proxy da requisição não deve ser serializado
+    @Inject
+    transient RequestStatements statements;
+    
+    @Override
+    public String inspect(String sql) {
+        if (Arc.container().requestContext().isActive()) {
+            statements.increment();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,37 @@
+package com.finance.auth.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Limite configurado: até capacity requisições de rajada, reabastecidas
+ * de forma contínua à taxa de capacity por period
+ */
+public final class RateLimit {
+
+    public final String name;
+    public final long capacity;
+    public final Duration period;
+
+    public RateLimit(String name, long capacity, Duration period) {
+        if (capacity <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Limite inválido para " + name + ": " + capacity + "/" + period);
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.period = period;
+    }
+
+    /**
+     * Intervalo entre duas fichas reabastecidas, em nanossegundos
+     */
+    public long intervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    /**
+     * Tempo para reabastecer o bucket inteiro, em nanossegundos
+     */
+    public long burstNanos() {
+        return intervalNanos() * capacity;
+    }
+}
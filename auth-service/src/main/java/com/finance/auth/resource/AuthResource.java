@@ -1,27 +1,53 @@
 package com.finance.auth.resource;
 
 import com.finance.auth.dto.*;
+import com.finance.auth.entity.RefreshToken;
 import com.finance.auth.entity.User;
-import io.smallrye.jwt.build.Jwt;
+import com.finance.auth.ratelimit.RateLimited;
+import com.finance.auth.security.PasswordHasher;
+import com.finance.auth.security.TokenIssuer;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import java.util.Arrays;
-import java.util.HashSet;
+import java.time.Duration;
 
 @Path("/auth")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class AuthResource {
     
+    @Inject
+    PasswordHasher passwordHasher;
+    
+    @Inject
+    TokenIssuer tokenIssuer;
+    
+    @Inject
+    MeterRegistry registry;
+    
+    @ConfigProperty(name = "finance.auth.refresh-token.ttl", defaultValue = "P30D")
+    Duration refreshTokenTtl;
+    
     /**
      * Registra um novo usuário
+     * O hash BCrypt é gerado no pool de hashing, fora da transação,
+     * para não segurar uma conexão do banco durante o cálculo
      */
     @POST
     @Path("/register")
-    @Transactional
+    @RateLimited("register")
+    @Timed(value = "auth.requests", histogram = true)
     public Response register(RegisterRequest request) {
         // Validações
         if (request.username == null || request.username.isBlank()) {
@@ -36,15 +62,23 @@ public class AuthResource {
                     .build();
         }
         
-        // Verifica se usuário já existe
-        if (User.findByUsername(request.username) != null) {
-            return Response.status(Response.Status.CONFLICT)
-                    .entity(new ErrorResponse("Username já existe"))
-                    .build();
+        // Verifica se usuário já existe (o filtro de usernames evita a consulta na maioria dos casos)
+        if (User.usernameExists(request.username)) {
+            return usernameTaken();
         }
         
         // Cria o usuário
-        User.add(request.username, request.password, request.role);
+        String passwordHash = passwordHasher.hash(request.password);
+        try {
+            QuarkusTransaction.requiringNew()
+                    .run(() -> User.addHashed(request.username, passwordHash, request.role));
+        } catch (RuntimeException e) {
+            // Cadastro concorrente do mesmo username (ou feito por outra instância)
+            if (isConstraintViolation(e)) {
+                return usernameTaken();
+            }
+            throw e;
+        }
         
         return Response.status(Response.Status.CREATED)
                 .entity(new ErrorResponse("Usuário criado com sucesso"))
@@ -56,23 +90,90 @@ public class AuthResource {
      */
     @POST
     @Path("/login")
+    @RateLimited("login")
+    @Timed(value = "auth.requests", histogram = true)
     public Response login(LoginRequest request) {
         // Busca o usuário
         User user = User.findByUsername(request.username);
         
-        if (user == null || !user.validatePassword(request.password)) {
+        // Usuário inexistente também paga uma verificação BCrypt, para que os dois
+        // caminhos levem o mesmo tempo e não revelem quais usernames existem
+        boolean valid = user != null
+                ? passwordHasher.matches(request.password, user.password)
+                : passwordHasher.matchesDummy(request.password);
+        
+        if (!valid) {
             return Response.status(Response.Status.UNAUTHORIZED)
                     .entity(new ErrorResponse("Credenciais inválidas"))
                     .build();
         }
         
-        // Gera o JWT
-        String token = Jwt.issuer("https://finance-auth-service")
-                .upn(user.username)
-                .groups(new HashSet<>(Arrays.asList(user.role)))
-                .claim("userId", user.id)
-                .sign();
+        String refreshToken = QuarkusTransaction.requiringNew()
+                .call(() -> RefreshToken.issue(user.id, refreshTokenTtl));
         
-        return Response.ok(new AuthResponse(token, user.username, user.role)).build();
+        return Response.ok(new AuthResponse(issueToken(user), user.username, user.role, refreshToken)).build();
+    }
+    
+    /**
+     * Renova o access token a partir de um refresh token, sem verificar a senha
+     * O refresh token usado é revogado e um novo é devolvido (rotação)
+     */
+    @POST
+    @Path("/refresh")
+    @Timed(value = "auth.requests", histogram = true)
+    @Transactional
+    public Response refresh(RefreshRequest request) {
+        if (request.refreshToken == null || request.refreshToken.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Refresh token é obrigatório"))
+                    .build();
+        }
+        
+        Long userId = RefreshToken.consume(request.refreshToken);
+        User user = userId != null ? User.findById(userId) : null;
+        if (user == null) {
+            return Response.status(Response.Status.UNAUTHORIZED)
+                    .entity(new ErrorResponse("Refresh token inválido"))
+                    .build();
+        }
+        
+        String refreshToken = RefreshToken.issue(user.id, refreshTokenTtl);
+        return Response.ok(new AuthResponse(issueToken(user), user.username, user.role, refreshToken)).build();
+    }
+    
+    /**
+     * Revoga o refresh token (logout)
+     */
+    @POST
+    @Path("/logout")
+    @Timed(value = "auth.requests", histogram = true)
+    @Transactional
+    public Response logout(RefreshRequest request) {
+        if (request.refreshToken != null) {
+            RefreshToken.revoke(request.refreshToken);
+        }
+        return Response.noContent().build();
+    }
+    
+    private String issueToken(User user) {
+        Timer.Sample sample = Timer.start(registry);
+        String token = tokenIssuer.issue(user);
+        sample.stop(registry.timer("jwt.sign.duration", "algorithm", tokenIssuer.algorithm().getAlgorithm()));
+        return token;
+    }
+    
+    private Response usernameTaken() {
+        return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse("Username já existe"))
+                .build();
+    }
+    
+    private static boolean isConstraintViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
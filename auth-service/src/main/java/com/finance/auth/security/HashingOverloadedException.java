@@ -0,0 +1,14 @@
+package com.finance.auth.security;
+
+/**
+ * Lançada quando o pool de hashing BCrypt está saturado
+ * (fila cheia ou tempo de espera esgotado)
+ */
+public class HashingOverloadedException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public HashingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.finance.auth.security;
+
+import com.finance.auth.dto.ErrorResponse;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Converte a sobrecarga do pool de hashing em 503 com Retry-After
+ */
+@Provider
+public class HashingOverloadedExceptionMapper implements ExceptionMapper<HashingOverloadedException> {
+    
+    @Override
+    public Response toResponse(HashingOverloadedException exception) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .type(MediaType.APPLICATION_JSON)
+                .entity(new ErrorResponse("Serviço sobrecarregado, tente novamente"))
+                .build();
+    }
+}
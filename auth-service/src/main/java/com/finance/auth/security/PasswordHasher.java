@@ -0,0 +1,153 @@
+package com.finance.auth.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.elytron.security.common.BcryptUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa o hashing e a verificação BCrypt em um pool dedicado e limitado
+ * O pool tem tamanho fixo (por padrão, um thread por núcleo) e uma fila limitada;
+ * quando a fila enche ou a espera passa do timeout, lança HashingOverloadedException
+ * em vez de deixar o BCrypt consumir todos os núcleos do serviço
+ */
+@ApplicationScoped
+public class PasswordHasher {
+    
+    @ConfigProperty(name = "finance.auth.hashing.threads")
+    Optional<Integer> threads;
+    
+    @ConfigProperty(name = "finance.auth.hashing.queue-size", defaultValue = "64")
+    int queueSize;
+    
+    @ConfigProperty(name = "finance.auth.hashing.timeout", defaultValue = "PT5S")
+    Duration timeout;
+    
+    @Inject
+    MeterRegistry registry;
+    
+    private ThreadPoolExecutor executor;
+    private String dummyHash;
+    private Timer hashTimer;
+    private Timer verifyTimer;
+    private Counter rejected;
+    
+    @PostConstruct
+    void init() {
+        int poolSize = threads.orElse(Runtime.getRuntime().availableProcessors());
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        Gauge.builder("auth.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Operações BCrypt aguardando na fila")
+                .register(registry);
+        Gauge.builder("auth.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações BCrypt em execução")
+                .register(registry);
+        hashTimer = latencyTimer("hash");
+        verifyTimer = latencyTimer("verify");
+        dummyHash = BcryptUtil.bcryptHash(UUID.randomUUID().toString());
+        rejected = Counter.builder("auth.hash.rejected")
+                .description("Operações BCrypt recusadas por sobrecarga")
+                .register(registry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Gera o hash BCrypt de uma senha
+     * 
+     * @param password Senha em texto plano
+     * @return Hash BCrypt
+     */
+    public String hash(String password) {
+        return submit(() -> hashTimer.record(() -> BcryptUtil.bcryptHash(password)));
+    }
+    
+    /**
+     * Verifica uma senha contra um hash BCrypt
+     * 
+     * @param password Senha em texto plano
+     * @param hash Hash BCrypt armazenado
+     * @return true se a senha estiver correta
+     */
+    public boolean matches(String password, String hash) {
+        return submit(() -> verifyTimer.record(() -> BcryptUtil.matches(password, hash)));
+    }
+    
+    /**
+     * Executa uma verificação BCrypt contra um hash descartável, com o mesmo custo
+     * de uma verificação real. Usado quando o usuário não existe, para que o login
+     * de um usuário inexistente leve o mesmo tempo que o de uma senha incorreta
+     * 
+     * @param password Senha em texto plano
+     * @return sempre false
+     */
+    public boolean matchesDummy(String password) {
+        matches(password, dummyHash);
+        return false;
+    }
+    
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingOverloadedException("Fila de hashing cheia");
+        }
+        
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new HashingOverloadedException("Tempo de espera do hashing esgotado");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HashingOverloadedException("Hashing interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private Timer latencyTimer(String operation) {
+        return Timer.builder("auth.hash.duration")
+                .description("Duração das operações BCrypt")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
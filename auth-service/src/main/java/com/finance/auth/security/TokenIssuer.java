@@ -0,0 +1,76 @@
+package com.finance.auth.security;
+
+import com.finance.auth.entity.User;
+import io.quarkus.runtime.Startup;
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.build.Jwt;
+import io.smallrye.jwt.util.KeyUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.util.Collections;
+
+/**
+ * Emissão dos JWTs de login
+ * 
+ * A chave privada é lida e decodificada uma única vez na inicialização; cada
+ * emissão apenas monta os claims e assina com a chave já carregada, sem passar
+ * pela resolução de smallrye.jwt.sign.key.location a cada token.
+ * 
+ * O algoritmo segue mp.jwt.verify.publickey.algorithm: RS256 (padrão) ou ES256,
+ * com chave EC P-256. ES256 assina bem mais rápido que RSA; a verificação fica mais
+ * cara, mas no transaction-service ela acontece uma vez por token (TokenCache)
+ */
+@Startup
+@ApplicationScoped
+public class TokenIssuer {
+    
+    @ConfigProperty(name = "mp.jwt.verify.issuer")
+    String issuer;
+    
+    @ConfigProperty(name = "smallrye.jwt.sign.key.location")
+    String keyLocation;
+    
+    @ConfigProperty(name = "mp.jwt.verify.publickey.algorithm", defaultValue = "RS256")
+    String algorithmName;
+    
+    private SignatureAlgorithm algorithm;
+    private PrivateKey signingKey;
+    
+    @PostConstruct
+    void init() {
+        algorithm = SignatureAlgorithm.fromAlgorithm(algorithmName);
+        try {
+            signingKey = KeyUtils.readPrivateKey(keyLocation, algorithm);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível carregar a chave de assinatura " + keyLocation, e);
+        }
+        if (signingKey == null) {
+            throw new IllegalStateException("Chave de assinatura não encontrada: " + keyLocation);
+        }
+    }
+    
+    /**
+     * Emite o token de acesso de um usuário autenticado
+     * 
+     * @param user Usuário autenticado
+     * @return JWT assinado
+     */
+    public String issue(User user) {
+        return Jwt.issuer(issuer)
+                .upn(user.username)
+                .groups(Collections.singleton(user.role))
+                .claim("userId", user.id)
+                .jws()
+                .algorithm(algorithm)
+                .sign(signingKey);
+    }
+    
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+}
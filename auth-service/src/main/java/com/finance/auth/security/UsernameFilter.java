@@ -0,0 +1,125 @@
+package com.finance.auth.security;
+
+import com.finance.auth.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom com os usernames cadastrados
+ * Responde "com certeza não existe" sem consultar o banco; um resultado positivo
+ * ainda precisa ser confirmado no banco. É reconstruído na inicialização e
+ * atualizado a cada cadastro. Usernames cadastrados por outra instância não
+ * aparecem no filtro local, por isso a constraint unique do banco continua
+ * sendo a garantia final contra duplicidade
+ */
+@ApplicationScoped
+public class UsernameFilter {
+    
+    private static final Logger LOG = Logger.getLogger(UsernameFilter.class);
+    
+    @ConfigProperty(name = "finance.auth.username-filter.expected-users", defaultValue = "1000000")
+    long expectedUsers;
+    
+    @ConfigProperty(name = "finance.auth.username-filter.false-positive-rate", defaultValue = "0.01")
+    double falsePositiveRate;
+    
+    private volatile AtomicLongArray bits;
+    private volatile long bitCount;
+    private volatile int hashCount;
+    
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+    
+    /**
+     * Reconstrói o filtro a partir dos usernames do banco
+     */
+    public void rebuild() {
+        long size = Math.max(64, (long) (-expectedUsers * Math.log(falsePositiveRate) 
+                                         / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) size / expectedUsers * Math.log(2)));
+        AtomicLongArray newBits = new AtomicLongArray((int) ((size + 63) / 64));
+        
+        long[] loaded = {0};
+        QuarkusTransaction.requiringNew().run(() -> User.streamUsernames().forEach(username -> {
+            set(newBits, size, hashes, username);
+            loaded[0]++;
+        }));
+        
+        bits = newBits;
+        bitCount = size;
+        hashCount = hashes;
+        LOG.debugf("Filtro de usernames reconstruído com %d usuários", loaded[0]);
+    }
+    
+    /**
+     * Registra um username recém-cadastrado
+     * 
+     * @param username Nome de usuário
+     */
+    public void put(String username) {
+        set(bits, bitCount, hashCount, username);
+    }
+    
+    /**
+     * Verifica se o username pode existir
+     * 
+     * @param username Nome de usuário
+     * @return false se o username com certeza não existe
+     */
+    public boolean mightContain(String username) {
+        AtomicLongArray current = bits;
+        long size = bitCount;
+        long h1 = hash(username);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, size);
+            if ((current.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void set(AtomicLongArray target, long size, int hashes, String username) {
+        long h1 = hash(username);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashes; i++) {
+            long index = Math.floorMod(h1 + i * h2, size);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long value;
+            do {
+                value = target.get(word);
+            } while ((value & mask) == 0 && !target.compareAndSet(word, value, value | mask));
+        }
+    }
+    
+    /**
+     * FNV-1a 64 bits seguido de mistura final (fmix64 do MurmurHash3)
+     */
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+    
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,144 @@
+package com.finance.benchmark;
+
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.UserBalance;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara as formas de calcular o saldo de um usuário:
+ * carregar todas as linhas e somar em Java (antigo calculateBalance, em centavos
+ * com Money e, como referência, em BigDecimal como antes de Money), agregar no banco
+ * (Transaction.summarize) e ler o saldo consolidado (UserBalance.findByUserId)
+ * As duas últimas chamam os métodos do serviço sobre Hibernate e o schema das migrações;
+ * cada operação abre a própria sessão, como uma requisição
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceCalculationBenchmark {
+    
+    @Param({"100", "10000", "1000000"})
+    int rows;
+    
+    private SessionFactory sessionFactory;
+    private Connection connection;
+    private PreparedStatement loadAll;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.createSchema();
+        BenchmarkDatabase.populate(rows);
+        sessionFactory = BenchmarkDatabase.sessionFactory();
+        
+        connection = BenchmarkDatabase.open();
+        loadAll = connection.prepareStatement(
+                "select id, user_id, description, amount, type, date from transactions "
+                + "where user_id = ? order by date desc");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        sessionFactory.close();
+    }
+    
+    @Benchmark
+    public BigDecimal javaLoop() throws SQLException {
+        loadAll.setLong(1, BenchmarkDatabase.USER_ID);
+        List<Transaction> transactions = new ArrayList<>();
+        try (ResultSet rs = loadAll.executeQuery()) {
+            while (rs.next()) {
+                Transaction transaction = new Transaction(rs.getLong(2), rs.getString(3), Money.of(rs.getBigDecimal(4)),
+                        TransactionType.valueOf(rs.getString(5)), rs.getDate(6).toLocalDate());
+                transaction.id = rs.getLong(1);
+                transactions.add(transaction);
+            }
+        }
+        
+        long balance = 0;
+        for (Transaction t : transactions) {
+            if (t.type == TransactionType.INCOME) {
+                balance = Math.addExact(balance, t.amount.cents());
+            } else {
+                balance = Math.subtractExact(balance, t.amount.cents());
+            }
+        }
+        return Money.ofCents(balance).toBigDecimal();
+    }
+    
+    /**
+     * Mesmo laço com os valores em BigDecimal, como era antes de Money
+     * (a entidade guarda Money, então as linhas vão para uma classe própria)
+     */
+    @Benchmark
+    public BigDecimal javaLoopBigDecimal() throws SQLException {
+        loadAll.setLong(1, BenchmarkDatabase.USER_ID);
+        List<AmountRow> transactions = new ArrayList<>();
+        try (ResultSet rs = loadAll.executeQuery()) {
+            while (rs.next()) {
+                transactions.add(new AmountRow(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getBigDecimal(4),
+                        TransactionType.valueOf(rs.getString(5)), rs.getDate(6).toLocalDate()));
+            }
+        }
+        
+        BigDecimal balance = BigDecimal.ZERO;
+        for (AmountRow t : transactions) {
+            if (t.type == TransactionType.INCOME) {
+                balance = balance.add(t.amount);
+            } else {
+                balance = balance.subtract(t.amount);
+            }
+        }
+        return balance;
+    }
+    
+    @Benchmark
+    public BigDecimal sqlAggregate() {
+        try (Session session = sessionFactory.openSession()) {
+            return Transaction.summarize(session, BenchmarkDatabase.USER_ID).balance();
+        }
+    }
+    
+    @Benchmark
+    public BigDecimal ledgerRow() {
+        try (Session session = sessionFactory.openSession()) {
+            return UserBalance.findByUserId(session, BenchmarkDatabase.USER_ID).balance;
+        }
+    }
+    
+    private static final class AmountRow {
+        final long id;
+        final long userId;
+        final String description;
+        final BigDecimal amount;
+        final TransactionType type;
+        final LocalDate date;
+        
+        AmountRow(long id, long userId, String description, BigDecimal amount, 
+                  TransactionType type, LocalDate date) {
+            this.id = id;
+            this.userId = userId;
+            this.description = description;
+            this.amount = amount;
+            this.type = type;
+            this.date = date;
+        }
+    }
+}
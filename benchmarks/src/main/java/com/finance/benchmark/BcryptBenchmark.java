@@ -0,0 +1,41 @@
+package com.finance.benchmark;
+
+import io.quarkus.elytron.security.common.BcryptUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt (hash no register, verificação no login) por fator de custo
+ * O auth-service usa o custo padrão do BcryptUtil (10)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BcryptBenchmark {
+    
+    private static final String PASSWORD = "s3nh4-d3-t3st3";
+    
+    @Param({"8", "10", "12"})
+    int cost;
+    
+    private String hash;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        hash = BcryptUtil.bcryptHash(PASSWORD, cost);
+    }
+    
+    @Benchmark
+    public String hash() {
+        return BcryptUtil.bcryptHash(PASSWORD, cost);
+    }
+    
+    @Benchmark
+    public boolean verify() {
+        return BcryptUtil.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,133 @@
+package com.finance.benchmark;
+
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.UserBalance;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Banco PostgreSQL dos benchmarks de consulta, com o schema criado pelas próprias
+ * migrações do transaction-service (classpath:db/migration, no jar do serviço)
+ * Servidor e credenciais: -Dfinance.bench.postgres.url, .username e .password
+ * (padrão jdbc:postgresql://localhost:5432/transaction_bench, postgres/postgres)
+ */
+final class BenchmarkDatabase {
+    
+    static final long USER_ID = 1L;
+    
+    static final String URL = System.getProperty("finance.bench.postgres.url",
+            "jdbc:postgresql://localhost:5432/transaction_bench");
+    static final String USERNAME = System.getProperty("finance.bench.postgres.username", "postgres");
+    static final String PASSWORD = System.getProperty("finance.bench.postgres.password", "postgres");
+    
+    private BenchmarkDatabase() {
+    }
+    
+    static Connection open() throws SQLException {
+        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+    }
+    
+    /**
+     * Recria o schema do zero aplicando as migrações do Flyway do serviço
+     */
+    static void createSchema() throws SQLException {
+        try (Connection connection = open();
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop schema if exists archive cascade");
+            statement.execute("drop schema public cascade");
+            statement.execute("create schema public");
+        }
+        Flyway.configure()
+                .dataSource(URL, USERNAME, PASSWORD)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+    
+    /**
+     * Hibernate com as entidades e a estratégia de nomes do serviço
+     * (a mesma de quarkus.hibernate-orm.physical-naming-strategy)
+     */
+    static SessionFactory sessionFactory() {
+        return new Configuration()
+                .addAnnotatedClass(Transaction.class)
+                .addAnnotatedClass(UserBalance.class)
+                .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+                .setProperty(AvailableSettings.URL, URL)
+                .setProperty(AvailableSettings.USER, USERNAME)
+                .setProperty(AvailableSettings.PASS, PASSWORD)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+                .buildSessionFactory();
+    }
+    
+    /**
+     * Insere transações aleatórias para USER_ID, espalhadas pelos últimos cinco anos,
+     * e o saldo consolidado correspondente
+     */
+    static void populate(int rows) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        LocalDate start = LocalDate.now().minusYears(5);
+        
+        try (Connection connection = open()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into transactions (id, user_id, description, amount, type, date) "
+                    + "values (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= rows; i++) {
+                    boolean isIncome = random.nextInt(4) == 0;
+                    BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 500_000), 2);
+                    if (isIncome) {
+                        income = income.add(amount);
+                    } else {
+                        expense = expense.add(amount);
+                    }
+                    
+                    insert.setLong(1, i);
+                    insert.setLong(2, USER_ID);
+                    insert.setString(3, "Transação " + i);
+                    insert.setBigDecimal(4, amount);
+                    insert.setString(5, isIncome ? "INCOME" : "EXPENSE");
+                    insert.setDate(6, Date.valueOf(start.plusDays(random.nextInt(5 * 365))));
+                    insert.addBatch();
+                    
+                    if (i % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            
+            try (PreparedStatement ledger = connection.prepareStatement(
+                    "insert into user_balances (user_id, balance, total_income, total_expense, transaction_count) "
+                    + "values (?, ?, ?, ?, ?)")) {
+                ledger.setLong(1, USER_ID);
+                ledger.setBigDecimal(2, income.subtract(expense));
+                ledger.setBigDecimal(3, income);
+                ledger.setBigDecimal(4, expense);
+                ledger.setLong(5, rows);
+                ledger.executeUpdate();
+            }
+            connection.commit();
+            
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze transactions");
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.finance.benchmark;
+
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a soma do saldo sobre linhas já carregadas em memória:
+ * BigDecimal (representação antiga de Transaction.amount), Money.plus e centavos em long
+ * Rodar com -prof gc para ver a taxa de alocação (gc.alloc.rate.norm) de cada variante
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+    @Param({"10000", "1000000"})
+    int rows;
+
+    private BigDecimal[] decimals;
+    private TransactionType[] types;
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        decimals = new BigDecimal[rows];
+        types = new TransactionType[rows];
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long cents = random.nextLong(1, 500_000);
+            TransactionType type = random.nextInt(4) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            decimals[i] = BigDecimal.valueOf(cents, Money.SCALE);
+            types[i] = type;
+            transactions.add(new Transaction(BenchmarkDatabase.USER_ID, "Transação " + i,
+                    Money.ofCents(cents), type, date));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < decimals.length; i++) {
+            if (types[i] == TransactionType.INCOME) {
+                balance = balance.add(decimals[i]);
+            } else {
+                balance = balance.subtract(decimals[i]);
+            }
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public Money moneyPlus() {
+        Money balance = Money.ZERO;
+        for (Transaction t : transactions) {
+            balance = t.type == TransactionType.INCOME ? balance.plus(t.amount) : balance.minus(t.amount);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public long longCents() {
+        long balance = 0;
+        for (Transaction t : transactions) {
+            if (t.type == TransactionType.INCOME) {
+                balance = Math.addExact(balance, t.amount.cents());
+            } else {
+                balance = Math.subtractExact(balance, t.amount.cents());
+            }
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,89 @@
+package com.finance.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finance.transaction.dto.TransactionResponse;
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapeamento Transaction -> TransactionResponse e serialização Jackson de listas grandes,
+ * como no list() do TransactionResource
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSerializationBenchmark {
+    
+    @Param({"1000", "100000"})
+    int size;
+    
+    private List<Transaction> transactions;
+    private List<TransactionResponse> responses;
+    private ObjectWriter writer;
+    
+    /**
+     * Descarta os bytes, medindo apenas o custo de serializar
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = new Transaction(BenchmarkDatabase.USER_ID, "Transação " + i,
+                    Money.ofCents(1000L + i),
+                    i % 4 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                    start.plusDays(i % 2000));
+            transaction.id = (long) i;
+            transactions.add(transaction);
+        }
+        responses = map();
+        
+        writer = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+    }
+    
+    @Benchmark
+    public List<TransactionResponse> map() {
+        return transactions.stream()
+                .map(TransactionResponse::new)
+                .collect(Collectors.toList());
+    }
+    
+    @Benchmark
+    public void serialize() throws IOException {
+        writer.writeValue(DISCARD, responses);
+    }
+    
+    @Benchmark
+    public void mapAndSerialize() throws IOException {
+        writer.writeValue(DISCARD, map());
+    }
+}
@@ -0,0 +1,87 @@
+package com.finance.benchmark;
+
+import com.finance.transaction.security.TokenCache;
+import io.smallrye.jwt.auth.principal.DefaultJWTCallerPrincipal;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.lang.JoseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de obter o userId de uma requisição autenticada:
+ * extração do claim (getUserIdFromToken), cálculo da chave do TokenCache
+ * e a verificação RSA que o cache evita
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserIdExtractionBenchmark {
+    
+    private JsonWebToken numericClaim;
+    private JsonWebToken stringClaim;
+    private String rawToken;
+    private KeyPair keys;
+    private DefaultJWTParser parser;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchAlgorithmException, JoseException {
+        numericClaim = new DefaultJWTCallerPrincipal(claims(42L));
+        stringClaim = new DefaultJWTCallerPrincipal(claims("42"));
+        
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keys = generator.generateKeyPair();
+        
+        JsonWebSignature jws = new JsonWebSignature();
+        jws.setPayload(claims(42L).toJson());
+        jws.setKey(keys.getPrivate());
+        jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.RSA_USING_SHA256);
+        rawToken = jws.getCompactSerialization();
+        
+        parser = new DefaultJWTParser();
+    }
+    
+    private static JwtClaims claims(Object userId) {
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer("https://finance-auth-service");
+        claims.setClaim("upn", "benchmark");
+        claims.setStringListClaim("groups", List.of("USER"));
+        claims.setClaim("userId", userId);
+        claims.setIssuedAtToNow();
+        claims.setExpirationTimeMinutesInTheFuture(60);
+        return claims;
+    }
+    
+    @Benchmark
+    public Long extractNumericClaim() {
+        return TokenCache.extractUserId(numericClaim);
+    }
+    
+    @Benchmark
+    public Long extractStringClaim() {
+        return TokenCache.extractUserId(stringClaim);
+    }
+    
+    @Benchmark
+    public String cacheKey() {
+        return TokenCache.hash(rawToken);
+    }
+    
+    @Benchmark
+    public JsonWebToken rsaVerify() throws ParseException {
+        return parser.verify(rawToken, keys.getPublic());
+    }
+}
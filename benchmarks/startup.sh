@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Mede tempo até a primeira requisição e RSS de um serviço em modo JVM e nativo.
+#
+# Uso (a partir da raiz do repositório, com o PostgreSQL rodando e os serviços empacotados):
+#   (cd transaction-service && ./mvnw package && ./mvnw package -Dnative)
+#   benchmarks/startup.sh transaction-service 8081
+#   benchmarks/startup.sh auth-service 8080
+#
+# Para cada modo, executa RUNS inicializações e imprime:
+#   - ms desde o exec até a primeira resposta HTTP em /q/metrics
+#   - RSS logo após a primeira resposta e após WARMUP requisições
+set -euo pipefail
+
+SERVICE=${1:?serviço (transaction-service ou auth-service)}
+PORT=${2:?porta HTTP do serviço}
+RUNS=${RUNS:-5}
+WARMUP=${WARMUP:-200}
+URL="http://localhost:${PORT}/q/metrics"
+
+now_ms() {
+    date +%s%3N
+}
+
+rss_mb() {
+    awk '/VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$1/status"
+}
+
+measure() {
+    local mode=$1
+    shift
+    for run in $(seq 1 "$RUNS"); do
+        local start pid first
+        start=$(now_ms)
+        "$@" > /dev/null 2>&1 &
+        pid=$!
+        until curl -s -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$mode: processo encerrou antes de responder" >&2
+                exit 1
+            fi
+            sleep 0.005
+        done
+        first=$(( $(now_ms) - start ))
+        local rss_first
+        rss_first=$(rss_mb "$pid")
+        for _ in $(seq 1 "$WARMUP"); do
+            curl -s -o /dev/null "$URL"
+        done
+        printf "%-6s run=%d first_request_ms=%d rss_first_mb=%s rss_warm_mb=%s\n" \
+            "$mode" "$run" "$first" "$rss_first" "$(rss_mb "$pid")"
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+    done
+}
+
+cd "$(dirname "$0")/../$SERVICE"
+
+if [ -f target/quarkus-app/quarkus-run.jar ]; then
+    measure jvm java -jar target/quarkus-app/quarkus-run.jar
+else
+    echo "target/quarkus-app/quarkus-run.jar não encontrado (./mvnw package)" >&2
+fi
+
+RUNNER=$(ls target/*-runner 2> /dev/null | head -1 || true)
+if [ -n "$RUNNER" ]; then
+    measure native "$RUNNER"
+else
+    echo "executável nativo não encontrado (./mvnw package -Dnative)" >&2
+fi
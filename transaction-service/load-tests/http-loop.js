@@ -0,0 +1,23 @@
+// Carga em laço fechado (N requisições simultâneas, cada uma dispara a próxima ao terminar)
+// para máquinas sem k6; imprime vazão e latências p50/p99 de um único endpoint.
+//
+// Uso:
+//   node load-tests/http-loop.js http://localhost:8081/transactions?limit=50 <jwt> 64 30
+const http = require('http');
+const [url, token, conc, secs] = [process.argv[2], process.argv[3], Number(process.argv[4]), Number(process.argv[5])];
+const agent = new http.Agent({ keepAlive: true, maxSockets: conc });
+const end = Date.now() + secs * 1000; let ok = 0, fail = 0; const lat = [];
+function one() {
+  if (Date.now() > end) return Promise.resolve();
+  const t = process.hrtime.bigint();
+  return new Promise(res => {
+    http.get(url, { agent, headers: { Authorization: 'Bearer ' + token } }, r => {
+      r.resume(); r.on('end', () => { (r.statusCode === 200 ? ok++ : fail++); lat.push(Number(process.hrtime.bigint() - t) / 1e6); res(); });
+    }).on('error', () => { fail++; res(); });
+  }).then(one);
+}
+Promise.all(Array.from({ length: conc }, one)).then(() => {
+  lat.sort((a, b) => a - b); const p = q => lat[Math.floor(q * (lat.length - 1))].toFixed(1);
+  console.log(`${url} ok=${ok} fail=${fail} rps=${(ok / secs).toFixed(0)} p50=${p(0.5)}ms p99=${p(0.99)}ms`);
+  agent.destroy();
+});
@@ -0,0 +1,46 @@
+// Carga sobre os endpoints de listagem (página) e saldo.
+// Compara o modo bloqueante (/transactions) com o reativo (/reactive/transactions,
+// disponível no build com -Preactive) usando o mesmo número de núcleos.
+//
+// Uso:
+//   k6 run -e TOKEN=<jwt> -e PREFIX=/transactions load-tests/list-balance.js
+//   k6 run -e TOKEN=<jwt> -e PREFIX=/reactive/transactions load-tests/list-balance.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const PREFIX = __ENV.PREFIX || '/transactions';
+
+export const options = {
+    scenarios: {
+        list: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 200),
+            duration: __ENV.DURATION || '60s',
+            exec: 'list',
+        },
+        balance: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 200),
+            duration: __ENV.DURATION || '60s',
+            exec: 'balance',
+        },
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+    },
+};
+
+const params = {
+    headers: { Authorization: `Bearer ${__ENV.TOKEN}` },
+};
+
+export function list() {
+    const res = http.get(`${BASE_URL}${PREFIX}?limit=50`, params);
+    check(res, { 'list 200': (r) => r.status === 200 });
+}
+
+export function balance() {
+    const res = http.get(`${BASE_URL}${PREFIX}/balance`, params);
+    check(res, { 'balance 200': (r) => r.status === 200 });
+}
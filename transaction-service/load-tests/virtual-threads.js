@@ -0,0 +1,44 @@
+// Muitas requisições concorrentes com o banco lento: compara virtual threads
+// (padrão) com o pool de workers de plataforma (-Dquarkus.virtual-threads.enabled=false).
+//
+// Para simular o banco lento, aponte o datasource para um proxy com latência, por exemplo:
+//   toxiproxy-cli create -l localhost:15432 -u localhost:5432 pg
+//   toxiproxy-cli toxic add -t latency -a latency=50 pg
+//   java -Dquarkus.datasource.jdbc.url=jdbc:postgresql://localhost:15432/transaction_db -jar target/quarkus-app/quarkus-run.jar
+//
+// Uso:
+//   k6 run -e TOKEN=<jwt> load-tests/virtual-threads.js
+//   k6 run -e TOKEN=<jwt> -e VUS=5000 load-tests/virtual-threads.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const VUS = Number(__ENV.VUS || 2000);
+
+export const options = {
+    scenarios: {
+        slow: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: __ENV.DURATION || '60s', target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration': ['p(99)<5000'],
+    },
+};
+
+const params = {
+    headers: { Authorization: `Bearer ${__ENV.TOKEN}` },
+    timeout: '30s',
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}/transactions?limit=50`, params);
+    check(res, { 'list 200': (r) => r.status === 200 });
+}
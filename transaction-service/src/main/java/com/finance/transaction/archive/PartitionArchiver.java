@@ -0,0 +1,198 @@
+package com.finance.transaction.archive;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manutenção das partições anuais de transactions
+ * 
+ * - Cria com antecedência a partição do ano seguinte
+ * - Com finance.archive.enabled=true (desligado por padrão), resume as partições mais
+ *   antigas que o período de retenção em transaction_yearly_summaries e as move para
+ *   o schema "archive"
+ * 
+ * Os totais do usuário não mudam: o que sai do detalhe entra no resumo anual, somado
+ * pelo resumo e pelas estatísticas; a listagem, a busca e a exportação deixam de ver
+ * as transações arquivadas, por isso o arquivamento precisa ser ligado explicitamente
+ * A versão de alteração dos usuários afetados é incrementada, já que a listagem muda
+ * 
+ * Cada etapa roda sob um advisory lock do PostgreSQL, como no OutboxRelay: com várias
+ * instâncias, só uma executa a manutenção; as demais encontram o lock ocupado e desistem
+ */
+@ApplicationScoped
+public class PartitionArchiver {
+    
+    private static final Logger LOG = Logger.getLogger(PartitionArchiver.class);
+    private static final Pattern YEARLY_PARTITION = Pattern.compile("transactions_y(\\d{4})");
+    
+    /**
+     * Chave do advisory lock (segue as de IngestDrainer)
+     */
+    static final long ARCHIVE_LOCK = 7_301_003L;
+    
+    /**
+     * Colunas copiadas ao mover linhas (as geradas, como description_tsv, são recalculadas)
+     */
+    private static final String COLUMNS = "id, user_id, description, amount, type, date, version";
+    
+    @Inject
+    EntityManager entityManager;
+    
+    @ConfigProperty(name = "finance.archive.enabled", defaultValue = "false")
+    boolean enabled;
+    
+    @ConfigProperty(name = "finance.archive.retention-years", defaultValue = "2")
+    int retentionYears;
+    
+    @Scheduled(cron = "{finance.archive.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        int currentYear = LocalDate.now().getYear();
+        int firstKeptYear = currentYear - retentionYears;
+        
+        if (!QuarkusTransaction.requiringNew().call(() -> locked(() -> createPartition(currentYear + 1)))) {
+            LOG.debug("Manutenção de partições em andamento em outra instância");
+            return;
+        }
+        if (!enabled) {
+            return;
+        }
+        
+        for (int year : QuarkusTransaction.requiringNew().call(this::attachedYears)) {
+            if (year < firstKeptYear) {
+                QuarkusTransaction.requiringNew().call(() -> locked(() -> archivePartition(year)));
+            }
+        }
+        QuarkusTransaction.requiringNew()
+                .call(() -> locked(() -> archiveDefaultRows(LocalDate.of(firstKeptYear, 1, 1))));
+    }
+    
+    /**
+     * Executa a etapa se obtiver o lock, liberado no fim da transação atual
+     * 
+     * @return false se outra instância detém o lock
+     */
+    private boolean locked(Runnable step) {
+        boolean acquired = (Boolean) entityManager.createNativeQuery("select pg_try_advisory_xact_lock(?1)")
+                .setParameter(1, ARCHIVE_LOCK)
+                .getSingleResult();
+        if (acquired) {
+            step.run();
+        }
+        return acquired;
+    }
+    
+    /**
+     * Cria a partição de um ano, se ainda não existir
+     * Linhas desse ano que caíram na partição default são movidas para ela
+     */
+    void createPartition(int year) {
+        if (attachedYears().contains(year)) {
+            return;
+        }
+        
+        String partition = "transactions_y" + year;
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        
+        execute("create table " + partition
+                + " (like transactions including defaults including constraints including generated)");
+        execute("with moved as (delete from transactions_default "
+                + "where date >= '" + from + "' and date < '" + to + "' returning " + COLUMNS + ") "
+                + "insert into " + partition + " (" + COLUMNS + ") select " + COLUMNS + " from moved");
+        execute("alter table transactions attach partition " + partition
+                + " for values from ('" + from + "') to ('" + to + "')");
+        
+        LOG.infof("Partição %s criada", partition);
+    }
+    
+    /**
+     * Resume uma partição anual por usuário e a desanexa para o schema "archive"
+     */
+    void archivePartition(int year) {
+        // Pode ter sido arquivada por outra instância depois da listagem dos anos
+        if (!attachedYears().contains(year)) {
+            return;
+        }
+        String partition = "transactions_y" + year;
+        
+        int users = execute("insert into transaction_yearly_summaries "
+                + "(user_id, year, total_income, total_expense, transaction_count) "
+                + "select user_id, " + year + ", "
+                + "coalesce(sum(case when type = 'INCOME' then amount end), 0), "
+                + "coalesce(sum(case when type = 'EXPENSE' then amount end), 0), "
+                + "count(*) "
+                + "from " + partition + " group by user_id "
+                + upsertSummary());
+        execute("update user_balances set version = version + 1 "
+                + "where user_id in (select distinct user_id from " + partition + ")");
+        execute("alter table transactions detach partition " + partition);
+        execute("alter table " + partition + " set schema archive");
+        
+        LOG.infof("Partição %s arquivada (%d usuários)", partition, users);
+    }
+    
+    /**
+     * Resume e arquiva as linhas anteriores ao período de retenção que estão
+     * na partição default (por exemplo, datas de anos já arquivados)
+     */
+    void archiveDefaultRows(LocalDate before) {
+        execute("with moved as (delete from transactions_default where date < '" + before + "' "
+                + "returning " + COLUMNS + "), "
+                + "archived as (insert into archive.transactions_default (" + COLUMNS + ") "
+                + "select " + COLUMNS + " from moved "
+                + "returning user_id, type, amount, date), "
+                + "bumped as (update user_balances set version = version + 1 "
+                + "where user_id in (select user_id from archived)) "
+                + "insert into transaction_yearly_summaries "
+                + "(user_id, year, total_income, total_expense, transaction_count) "
+                + "select user_id, cast(extract(year from date) as int), "
+                + "coalesce(sum(case when type = 'INCOME' then amount end), 0), "
+                + "coalesce(sum(case when type = 'EXPENSE' then amount end), 0), "
+                + "count(*) "
+                + "from archived group by user_id, cast(extract(year from date) as int) "
+                + upsertSummary());
+    }
+    
+    /**
+     * Anos com partição anexada a transactions
+     */
+    List<Integer> attachedYears() {
+        @SuppressWarnings("unchecked")
+        List<String> partitions = entityManager.createNativeQuery(
+                "select cast(c.relname as varchar) from pg_inherits i "
+                + "join pg_class c on c.oid = i.inhrelid "
+                + "where i.inhparent = cast('transactions' as regclass)")
+                .getResultList();
+        
+        List<Integer> years = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = YEARLY_PARTITION.matcher(partition);
+            if (matcher.matches()) {
+                years.add(Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return years;
+    }
+    
+    private static String upsertSummary() {
+        return "on conflict (user_id, year) do update set "
+                + "total_income = transaction_yearly_summaries.total_income + excluded.total_income, "
+                + "total_expense = transaction_yearly_summaries.total_expense + excluded.total_expense, "
+                + "transaction_count = transaction_yearly_summaries.transaction_count + excluded.transaction_count";
+    }
+    
+    private int execute(String sql) {
+        return entityManager.createNativeQuery(sql).executeUpdate();
+    }
+}
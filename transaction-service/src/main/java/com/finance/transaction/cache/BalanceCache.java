@@ -0,0 +1,69 @@
+package com.finance.transaction.cache;
+
+import com.finance.transaction.dto.BalanceResponse;
+import com.finance.transaction.event.TransactionsChanged;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.util.function.Function;
+
+/**
+ * Cache de leitura por usuário do endpoint de resumo
+ * Tamanho, TTL e métricas são configurados em quarkus.cache.caffeine."summary".
+ * O saldo não passa por aqui: é uma leitura por chave primária de user_balances,
+ * o mesmo custo de conferir a versão de uma entrada em cache
+ * Após o commit de qualquer escrita, a invalidação é publicada no
+ * BalanceInvalidationChannel, que a entrega a todas as instâncias
+ */
+@ApplicationScoped
+public class BalanceCache {
+    
+    @Inject
+    @CacheName("summary")
+    Cache summary;
+    
+    @Inject
+    BalanceInvalidationChannel channel;
+    
+    @PostConstruct
+    void init() {
+        channel.subscribe(this::invalidateLocal);
+    }
+    
+    /**
+     * Obtém o resumo do cache ou calcula com o loader em caso de miss
+     * Uma entrada mais antiga que a versão atual é descartada e recarregada pelo
+     * próprio cache, para que as leituras seguintes voltem a ser servidas dele
+     * 
+     * @param userId ID do usuário
+     * @param version Versão atual de UserBalance do usuário
+     * @param loader Cálculo do resumo (guarda na resposta a versão lida antes da soma)
+     */
+    public BalanceResponse summary(Long userId, long version, Function<Long, BalanceResponse> loader) {
+        BalanceResponse response = summary.get(userId, loader).await().indefinitely();
+        if (response.version < version) {
+            summary.invalidate(userId).await().indefinitely();
+            response = summary.get(userId, loader).await().indefinitely();
+        }
+        return response;
+    }
+    
+    /**
+     * Publica a invalidação somente depois que a escrita foi confirmada no banco
+     * Isso não impede que um loader iniciado antes do commit guarde o valor antigo
+     * depois da invalidação: por isso as entradas levam a versão de UserBalance lida
+     * antes do cálculo, e quem lê compara com a versão atual
+     */
+    void onTransactionsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TransactionsChanged event) {
+        channel.publish(event.userId);
+    }
+    
+    private void invalidateLocal(Long userId) {
+        summary.invalidate(userId).await().indefinitely();
+    }
+}
@@ -0,0 +1,26 @@
+package com.finance.transaction.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal por onde as invalidações do cache de saldo são propagadas
+ * Em uma instância única basta o InProcessInvalidationChannel; com várias
+ * instâncias, uma implementação sobre um broker (Redis pub/sub, PostgreSQL
+ * LISTEN/NOTIFY, Kafka) entrega a invalidação a todas elas
+ */
+public interface BalanceInvalidationChannel {
+    
+    /**
+     * Publica a invalidação do saldo de um usuário para todas as instâncias
+     * 
+     * @param userId ID do usuário
+     */
+    void publish(Long userId);
+    
+    /**
+     * Registra quem deve ser avisado das invalidações recebidas
+     * 
+     * @param listener Recebe o userId invalidado
+     */
+    void subscribe(Consumer<Long> listener);
+}
@@ -0,0 +1,31 @@
+package com.finance.transaction.cache;
+
+import io.quarkus.arc.DefaultBean;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal de invalidação local: entrega cada publicação aos ouvintes da própria instância
+ * Usado por padrão (instância única) e como substituto em memória de um canal distribuído
+ */
+@DefaultBean
+@ApplicationScoped
+public class InProcessInvalidationChannel implements BalanceInvalidationChannel {
+    
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public void publish(Long userId) {
+        for (Consumer<Long> listener : listeners) {
+            listener.accept(userId);
+        }
+    }
+    
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+}
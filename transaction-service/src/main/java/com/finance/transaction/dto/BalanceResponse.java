@@ -1,7 +1,10 @@
 package com.finance.transaction.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import java.math.BigDecimal;
 
+@RegisterForReflection
 public class BalanceResponse {
     public BigDecimal balance;
     public BigDecimal totalIncome;
@@ -9,6 +12,12 @@ public class BalanceResponse {
     public Long userId;
     public Long transactionCount;
     
+    /**
+     * Versão do saldo consolidado que gerou a resposta (base do ETag, fora do JSON)
+     */
+    @JsonIgnore
+    public Long version;
+    
     public BalanceResponse() {
     }
     
@@ -0,0 +1,21 @@
+package com.finance.transaction.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class BatchItemResponse {
+    public int line;
+    public int status;
+    public Long id;
+    public String error;
+    
+    public BatchItemResponse() {
+    }
+    
+    public BatchItemResponse(int line, int status, Long id, String error) {
+        this.line = line;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+}
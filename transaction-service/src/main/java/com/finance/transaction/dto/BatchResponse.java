@@ -0,0 +1,20 @@
+package com.finance.transaction.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+
+@RegisterForReflection
+public class BatchResponse {
+    public int created;
+    public int failed;
+    public List<BatchItemResponse> results;
+    
+    public BatchResponse() {
+    }
+    
+    public BatchResponse(int created, int failed, List<BatchItemResponse> results) {
+        this.created = created;
+        this.failed = failed;
+        this.results = results;
+    }
+}
@@ -1,5 +1,8 @@
 package com.finance.transaction.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 public class ErrorResponse {
     public String message;
     
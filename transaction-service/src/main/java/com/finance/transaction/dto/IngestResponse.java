@@ -0,0 +1,26 @@
+package com.finance.transaction.dto;
+
+import com.finance.transaction.entity.TransactionIngest;
+import com.finance.transaction.entity.TransactionIngestResult;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class IngestResponse {
+    public Long id;
+    public String status;
+    public Long transactionId;
+    
+    public IngestResponse() {
+    }
+    
+    public IngestResponse(TransactionIngest ingest) {
+        this.id = ingest.id;
+        this.status = "PENDING";
+    }
+    
+    public IngestResponse(TransactionIngestResult result) {
+        this.id = result.id;
+        this.status = "DONE";
+        this.transactionId = result.transactionId;
+    }
+}
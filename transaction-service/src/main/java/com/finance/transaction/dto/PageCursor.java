@@ -0,0 +1,38 @@
+package com.finance.transaction.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação de transações (posição após a última linha lida)
+ */
+public class PageCursor {
+    public final LocalDate date;
+    public final Long id;
+    
+    public PageCursor(LocalDate date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+    
+    public String encode() {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new PageCursor(LocalDate.parse(raw.substring(0, separator)),
+                                  Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
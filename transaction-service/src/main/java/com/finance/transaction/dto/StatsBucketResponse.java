@@ -0,0 +1,29 @@
+package com.finance.transaction.dto;
+
+import com.finance.transaction.entity.TransactionBucket;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RegisterForReflection
+public class StatsBucketResponse {
+    public LocalDate period;
+    public BigDecimal totalIncome;
+    public BigDecimal totalExpense;
+    public BigDecimal balance;
+    public Long transactionCount;
+    // true: totais de um ano arquivado inteiro, reportados no período de 1º de janeiro
+    public boolean archived;
+    
+    public StatsBucketResponse() {
+    }
+    
+    public StatsBucketResponse(TransactionBucket bucket) {
+        this.period = bucket.period;
+        this.totalIncome = bucket.totalIncome;
+        this.totalExpense = bucket.totalExpense;
+        this.balance = bucket.totalIncome.subtract(bucket.totalExpense);
+        this.transactionCount = bucket.transactionCount;
+        this.archived = bucket.archived;
+    }
+}
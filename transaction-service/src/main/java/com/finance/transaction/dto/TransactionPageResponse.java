@@ -0,0 +1,18 @@
+package com.finance.transaction.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+
+@RegisterForReflection
+public class TransactionPageResponse {
+    public List<TransactionResponse> items;
+    public String nextCursor;
+    
+    public TransactionPageResponse() {
+    }
+    
+    public TransactionPageResponse(List<TransactionResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
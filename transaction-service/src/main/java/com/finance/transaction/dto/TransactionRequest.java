@@ -1,14 +1,19 @@
 package com.finance.transaction.dto;
 
 import com.finance.transaction.entity.Transaction.TransactionType;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+@RegisterForReflection
 public class TransactionRequest {
     public String description;
     public BigDecimal amount;
     public TransactionType type;
     public LocalDate date;
+    // Versão esperada na alteração: diferente da atual retorna 409; ausente retorna 428
+    // (ou, com finance.transactions.require-version=false, a última escrita vence)
+    public Long version;
     
     public TransactionRequest() {
     }
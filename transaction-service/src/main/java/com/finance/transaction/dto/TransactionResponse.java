@@ -2,9 +2,11 @@ package com.finance.transaction.dto;
 
 import com.finance.transaction.entity.Transaction;
 import com.finance.transaction.entity.Transaction.TransactionType;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+@RegisterForReflection
 public class TransactionResponse {
     public Long id;
     public Long userId;
@@ -12,6 +14,7 @@ public class TransactionResponse {
     public BigDecimal amount;
     public TransactionType type;
     public LocalDate date;
+    public Long version;
     
     public TransactionResponse() {
     }
@@ -20,9 +23,10 @@ public class TransactionResponse {
         this.id = transaction.id;
         this.userId = transaction.userId;
         this.description = transaction.description;
-        this.amount = transaction.amount;
+        this.amount = transaction.amount.toBigDecimal();
         this.type = transaction.type;
         this.date = transaction.date;
+        this.version = transaction.version;
     }
     
     public TransactionResponse(Long id, Long userId, String description, 
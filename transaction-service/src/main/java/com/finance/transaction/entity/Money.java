@@ -0,0 +1,103 @@
+package com.finance.transaction.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em ponto fixo, representado internamente em centavos (long)
+ * Substitui BigDecimal no caminho quente: somas em memória não alocam um objeto por linha
+ * e toda aritmética é verificada contra overflow (ArithmeticException)
+ * Na borda (JSON, SQL) é convertido para BigDecimal com escala 2, igual ao numeric(10, 2)
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Casas decimais (mesma escala da coluna amount)
+     */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Cria um valor a partir de centavos
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Cria um valor a partir de um BigDecimal
+     * Casas além da segunda são arredondadas como o PostgreSQL faz ao gravar em numeric(10, 2)
+     *
+     * @param amount Valor (null retorna null)
+     * @return Valor em centavos
+     * @throws ArithmeticException se o valor não couber em um long de centavos
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofCents(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Valor em centavos
+     */
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    /**
+     * Valor como BigDecimal de escala 2 (ex.: 12.30), o mesmo lido antes da coluna numeric
+     * Usado na serialização JSON e nos parâmetros SQL
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && cents == other.cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
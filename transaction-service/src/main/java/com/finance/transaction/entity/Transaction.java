@@ -1,19 +1,54 @@
 package com.finance.transaction.entity;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Parameters;
 import jakarta.persistence.*;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Entidade Transaction - Representa uma transação financeira
  * Extende PanacheEntity para usar os métodos do Panache
+ * O schema (tabela, partições e índices) é criado pelas migrações do Flyway;
+ * os índices não são declarados aqui para não divergirem do banco
  */
 @Entity
 @Table(name = "transactions")
 public class Transaction extends PanacheEntity {
     
+    /**
+     * Quantidade de linhas buscadas por ida ao banco na leitura via cursor
+     */
+    public static final int STREAM_FETCH_SIZE = 500;
+    
+    /**
+     * Sequência dos ids (nome padrão do Hibernate para a tabela, alocação de 50 ids)
+     * Usada diretamente pelas inserções que não passam pelo JPA
+     */
+    public static final String ID_SEQUENCE = "transactions_seq";
+    
+    /**
+     * Totais do usuário (income, expense, total) somando o detalhe das partições ativas
+     * e os resumos anuais das partições arquivadas; parâmetro ?1 é o userId
+     */
+    public static final String SUMMARIZE_SQL =
+            "select coalesce(sum(income), 0) as income, coalesce(sum(expense), 0) as expense, "
+            + "cast(coalesce(sum(total), 0) as bigint) as total from ("
+            + "select sum(case when type = 'INCOME' then amount end) as income, "
+            + "sum(case when type = 'EXPENSE' then amount end) as expense, "
+            + "count(*) as total "
+            + "from transactions where user_id = ?1 "
+            + "union all "
+            + "select sum(total_income), sum(total_expense), sum(transaction_count) "
+            + "from transaction_yearly_summaries where user_id = ?1) totals";
+    
     /**
      * ID do usuário dono da transação
      * Referência ao User do auth-service (não é @ManyToOne pois está em outro banco)
@@ -28,10 +63,11 @@ public class Transaction extends PanacheEntity {
     public String description;
     
     /**
-     * Valor da transação
+     * Valor da transação (centavos em memória, numeric(10, 2) no banco)
      */
     @Column(nullable = false, precision = 10, scale = 2)
-    public BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    public Money amount;
     
     /**
      * Tipo da transação (INCOME ou EXPENSE)
@@ -46,6 +82,13 @@ public class Transaction extends PanacheEntity {
     @Column(nullable = false)
     public LocalDate date;
     
+    /**
+     * Versão para controle de concorrência otimista
+     */
+    @Version
+    @Column(nullable = false)
+    public Long version;
+    
     /**
      * Enum para tipo de transação
      */
@@ -63,7 +106,7 @@ public class Transaction extends PanacheEntity {
     /**
      * Construtor com parâmetros
      */
-    public Transaction(Long userId, String description, BigDecimal amount, 
+    public Transaction(Long userId, String description, Money amount, 
                       TransactionType type, LocalDate date) {
         this.userId = userId;
         this.description = description;
@@ -82,6 +125,136 @@ public class Transaction extends PanacheEntity {
         return list("userId = ?1 order by date desc", userId);
     }
     
+    /**
+     * Busca as transações de um usuário com filtros opcionais
+     * 
+     * @param userId ID do usuário
+     * @param from Data inicial (inclusive) ou null
+     * @param to Data final (inclusive) ou null
+     * @param type Tipo da transação ou null
+     * @return Lista de transações
+     */
+    public static List<Transaction> findByUserId(Long userId, LocalDate from, 
+                                                 LocalDate to, TransactionType type) {
+        Parameters params = Parameters.with("userId", userId);
+        String query = filter(params, from, to, type);
+        return list(query + " order by date desc, id desc", params);
+    }
+    
+    /**
+     * Busca uma página de transações de um usuário (paginação por cursor)
+     * Ordena por data e id decrescentes; a página seguinte começa logo após
+     * a última transação da página anterior, sem OFFSET
+     * 
+     * @param userId ID do usuário
+     * @param from Data inicial (inclusive) ou null
+     * @param to Data final (inclusive) ou null
+     * @param type Tipo da transação ou null
+     * @param afterDate Data da última transação da página anterior (null na primeira página)
+     * @param afterId ID da última transação da página anterior (null na primeira página)
+     * @param limit Tamanho da página
+     * @return Lista de transações
+     */
+    public static List<Transaction> findPageByUserId(Long userId, LocalDate from, LocalDate to,
+                                                     TransactionType type, LocalDate afterDate, 
+                                                     Long afterId, int limit) {
+        Parameters params = Parameters.with("userId", userId);
+        String query = filter(params, from, to, type);
+        if (afterDate != null && afterId != null) {
+            query += " and (date < :afterDate or (date = :afterDate and id < :afterId))";
+            params.and("afterDate", afterDate).and("afterId", afterId);
+        }
+        return find(query + " order by date desc, id desc", params)
+                .page(0, limit)
+                .list();
+    }
+    
+    /**
+     * Busca transações do usuário pela descrição, ordenadas por relevância no banco
+     * Combina texto completo com prefixo (cada palavra vira "palavra:*" no tsquery)
+     * e substring por trigramas (ILIKE '%texto%'), ambos com índice GIN por usuário
+     * 
+     * @param userId ID do usuário
+     * @param text Texto buscado
+     * @param offset Quantidade de resultados a pular
+     * @param limit Tamanho da página
+     * @return Transações encontradas, mais relevantes primeiro
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Transaction> search(Long userId, String text, int offset, int limit) {
+        String trimmed = text.trim();
+        return getEntityManager().createNativeQuery(
+                "select id, user_id, description, amount, type, date, version from transactions "
+                + "where user_id = :userId "
+                + "and (description_tsv @@ to_tsquery('simple', :query) or description ilike :pattern) "
+                + "order by ts_rank_cd(description_tsv, to_tsquery('simple', :query)) desc, "
+                + "similarity(description, :text) desc, date desc, id desc "
+                + "offset :offset limit :limit", Transaction.class)
+                .setParameter("userId", userId)
+                .setParameter("query", prefixQuery(trimmed))
+                .setParameter("pattern", "%" + escapeLike(trimmed) + "%")
+                .setParameter("text", trimmed)
+                .setParameter("offset", offset)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+    
+    /**
+     * Monta um tsquery de prefixo: "uber eats" -> "uber:* & eats:*"
+     * Só letras e dígitos entram, então o texto do usuário não altera a sintaxe do tsquery
+     */
+    private static String prefixQuery(String text) {
+        StringBuilder query = new StringBuilder();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                if (query.length() > 0) {
+                    query.append(" & ");
+                }
+                query.append(word).append(":*");
+            }
+        }
+        return query.toString();
+    }
+    
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static String filter(Parameters params, LocalDate from, LocalDate to, TransactionType type) {
+        StringBuilder query = new StringBuilder("userId = :userId");
+        if (from != null) {
+            query.append(" and date >= :from");
+            params.and("from", from);
+        }
+        if (to != null) {
+            query.append(" and date <= :to");
+            params.and("to", to);
+        }
+        if (type != null) {
+            query.append(" and type = :type");
+            params.and("type", type);
+        }
+        return query.toString();
+    }
+    
+    /**
+     * Percorre todas as transações de um usuário com um cursor somente-avanço
+     * Deve ser usado dentro de uma transação; o chamador é responsável por fechar
+     * o resultado e por desanexar as entidades já lidas
+     * 
+     * @param userId ID do usuário
+     * @return Cursor sobre as transações
+     */
+    public static ScrollableResults<Transaction> scrollByUserId(Long userId) {
+        return getEntityManager().unwrap(Session.class)
+                .createSelectionQuery("from Transaction where userId = ?1 order by date desc, id desc", 
+                                      Transaction.class)
+                .setParameter(1, userId)
+                .setReadOnly(true)
+                .setFetchSize(STREAM_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+    
     /**
      * Busca uma transação específica de um usuário
      * 
@@ -93,6 +266,99 @@ public class Transaction extends PanacheEntity {
         return find("id = ?1 and userId = ?2", id, userId).firstResult();
     }
     
+    /**
+     * Verifica se uma transação existe para o usuário
+     * 
+     * @param id ID da transação
+     * @param userId ID do usuário
+     * @return true se existir
+     */
+    public static boolean existsByIdAndUserId(Long id, Long userId) {
+        return count("id = ?1 and userId = ?2", id, userId) > 0;
+    }
+    
+    /**
+     * Altera uma transação com um único UPDATE ... RETURNING, sem carregá-la antes
+     * Campos nulos mantêm o valor atual. Com versão informada, a alteração só acontece
+     * se a versão no banco for a esperada (controle otimista); sem ela, a última escrita vence
+     * 
+     * @param id ID da transação
+     * @param userId ID do usuário
+     * @param expectedVersion Versão esperada ou null
+     * @param description Nova descrição ou null
+     * @param amount Novo valor ou null
+     * @param type Novo tipo ou null
+     * @param date Nova data ou null
+     * @return Estado atual e valores anteriores, ou null se nenhuma linha foi alterada
+     */
+    public static TransactionChange updateByIdAndUserId(Long id, Long userId, Long expectedVersion,
+                                                        String description, Money amount,
+                                                        TransactionType type, LocalDate date) {
+        // A subconsulta trava a linha e lê os valores anteriores no mesmo comando
+        String sql = "update transactions t set "
+                + "description = coalesce(cast(:description as varchar), t.description), "
+                + "amount = coalesce(cast(:amount as numeric), t.amount), "
+                + "type = coalesce(cast(:type as varchar), t.type), "
+                + "date = coalesce(cast(:date as date), t.date), "
+                + "version = t.version + 1 "
+                + "from (select id, amount, type from transactions "
+                + "where id = :id and user_id = :userId for update) old "
+                + "where t.id = old.id and (cast(:version as bigint) is null or t.version = :version) "
+                + "returning t.id, t.user_id, t.description, t.amount, t.type, t.date, t.version, "
+                + "old.amount, old.type";
+        
+        // Parâmetros nulos precisam do tipo explícito, disponível na NativeQuery do Hibernate
+        NativeQuery<?> query = getEntityManager().createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.setParameter("description", description, String.class)
+                .setParameter("amount", amount != null ? amount.toBigDecimal() : null, BigDecimal.class)
+                .setParameter("type", type != null ? type.name() : null, String.class)
+                .setParameter("date", date, LocalDate.class)
+                .setParameter("id", id)
+                .setParameter("userId", userId)
+                .setParameter("version", expectedVersion, Long.class);
+        
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = (List<Object[]>) query.getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        
+        Object[] row = rows.get(0);
+        Transaction current = fromRow(row);
+        return new TransactionChange(current, Money.of((BigDecimal) row[7]), TransactionType.valueOf((String) row[8]));
+    }
+    
+    /**
+     * Remove uma transação com um único DELETE ... RETURNING, sem carregá-la antes
+     * 
+     * @param id ID da transação
+     * @param userId ID do usuário
+     * @return Transação removida, ou null se não existir
+     */
+    public static Transaction deleteByIdAndUserId(Long id, Long userId) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery(
+                "delete from transactions where id = :id and user_id = :userId "
+                + "returning id, user_id, description, amount, type, date, version")
+                .setParameter("id", id)
+                .setParameter("userId", userId)
+                .getResultList();
+        
+        return rows.isEmpty() ? null : fromRow(rows.get(0));
+    }
+    
+    private static Transaction fromRow(Object[] row) {
+        Transaction transaction = new Transaction(((Number) row[1]).longValue(), (String) row[2],
+                Money.of((BigDecimal) row[3]), TransactionType.valueOf((String) row[4]), toLocalDate(row[5]));
+        transaction.id = ((Number) row[0]).longValue();
+        transaction.version = ((Number) row[6]).longValue();
+        return transaction;
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+    }
+    
     /**
      * Busca transações por tipo
      * 
@@ -120,24 +386,99 @@ public class Transaction extends PanacheEntity {
     }
     
     /**
-     * Calcula o saldo total de um usuário
+     * Calcula receitas, despesas e quantidade de transações de um usuário
+     * em uma única consulta agregada, sem carregar as entidades
      * 
      * @param userId ID do usuário
-     * @return Saldo (receitas - despesas)
+     * @return Totais agregados
      */
-    public static BigDecimal calculateBalance(Long userId) {
-        List<Transaction> transactions = findByUserId(userId);
+    public static TransactionTotals summarize(Long userId) {
+        return summarize(getEntityManager(), userId);
+    }
+    
+    /**
+     * Mesma consulta de summarize(userId) com um EntityManager explícito,
+     * para uso fora do Quarkus (benchmarks)
+     * 
+     * @param entityManager EntityManager usado na consulta
+     * @param userId ID do usuário
+     * @return Totais agregados
+     */
+    public static TransactionTotals summarize(EntityManager entityManager, Long userId) {
+        Object[] row = (Object[]) entityManager.createNativeQuery(SUMMARIZE_SQL)
+                .setParameter(1, userId)
+                .getSingleResult();
         
-        BigDecimal balance = BigDecimal.ZERO;
-        for (Transaction t : transactions) {
-            if (t.type == TransactionType.INCOME) {
-                balance = balance.add(t.amount);
-            } else {
-                balance = balance.subtract(t.amount);
-            }
+        return new TransactionTotals((BigDecimal) row[0], (BigDecimal) row[1], 
+                                     ((Number) row[2]).longValue());
+    }
+    
+    /**
+     * Soma receitas e despesas por período (dia ou mês) no banco, com date_trunc
+     * Anos já arquivados só têm o resumo anual: entram como um único período em 1º de
+     * janeiro, marcado como arquivado, quando o filtro cobre o ano inteiro
+     * 
+     * @param userId ID do usuário
+     * @param unit Unidade do período ("day" ou "month")
+     * @param from Data inicial (inclusive) ou null
+     * @param to Data final (inclusive) ou null
+     * @return Totais por período, em ordem cronológica
+     */
+    public static List<TransactionBucket> sumByPeriod(Long userId, String unit, 
+                                                      LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder(
+                "select period, sum(income), sum(expense), sum(total), bool_or(archived) from ("
+                + "select cast(date_trunc(:unit, date) as date) as period, "
+                + "coalesce(sum(case when type = 'INCOME' then amount end), 0) as income, "
+                + "coalesce(sum(case when type = 'EXPENSE' then amount end), 0) as expense, "
+                + "count(*) as total, false as archived "
+                + "from transactions where user_id = :userId");
+        if (from != null) {
+            sql.append(" and date >= :from");
+        }
+        if (to != null) {
+            sql.append(" and date <= :to");
+        }
+        sql.append(" group by 1 "
+                + "union all "
+                + "select make_date(year, 1, 1), total_income, total_expense, transaction_count, true "
+                + "from transaction_yearly_summaries where user_id = :userId");
+        if (from != null) {
+            sql.append(" and make_date(year, 1, 1) >= :from");
+        }
+        if (to != null) {
+            sql.append(" and make_date(year, 12, 31) <= :to");
+        }
+        sql.append(") buckets group by period order by period");
+        
+        Query query = getEntityManager().createNativeQuery(sql.toString())
+                .setParameter("unit", unit)
+                .setParameter("userId", userId);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
         }
         
-        return balance;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<TransactionBucket> buckets = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            buckets.add(new TransactionBucket(toLocalDate(row[0]), (BigDecimal) row[1], (BigDecimal) row[2], 
+                                              ((Number) row[3]).longValue(), (Boolean) row[4]));
+        }
+        return buckets;
+    }
+    
+    /**
+     * Calcula o saldo total de um usuário
+     * 
+     * @param userId ID do usuário
+     * @return Saldo (receitas - despesas)
+     */
+    public static BigDecimal calculateBalance(Long userId) {
+        return summarize(userId).balance();
     }
     
     /**
@@ -147,10 +488,7 @@ public class Transaction extends PanacheEntity {
      * @return Total de receitas
      */
     public static BigDecimal calculateTotalIncome(Long userId) {
-        List<Transaction> incomes = findByUserIdAndType(userId, TransactionType.INCOME);
-        return incomes.stream()
-                .map(t -> t.amount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return summarize(userId).totalIncome;
     }
     
     /**
@@ -160,10 +498,7 @@ public class Transaction extends PanacheEntity {
      * @return Total de despesas
      */
     public static BigDecimal calculateTotalExpense(Long userId) {
-        List<Transaction> expenses = findByUserIdAndType(userId, TransactionType.EXPENSE);
-        return expenses.stream()
-                .map(t -> t.amount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return summarize(userId).totalExpense;
     }
     
     /**
@@ -185,6 +520,7 @@ public class Transaction extends PanacheEntity {
                 ", amount=" + amount +
                 ", type=" + type +
                 ", date=" + date +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.finance.transaction.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projeção com os totais das transações de um usuário em um período (dia ou mês)
+ */
+public class TransactionBucket {
+    public final LocalDate period;
+    public final BigDecimal totalIncome;
+    public final BigDecimal totalExpense;
+    public final long transactionCount;
+    // Inclui o resumo de um ano arquivado (totais do ano inteiro, sem divisão por dia ou mês)
+    public final boolean archived;
+    
+    public TransactionBucket(LocalDate period, BigDecimal totalIncome, 
+                             BigDecimal totalExpense, long transactionCount, boolean archived) {
+        this.period = period;
+        this.totalIncome = totalIncome;
+        this.totalExpense = totalExpense;
+        this.transactionCount = transactionCount;
+        this.archived = archived;
+    }
+}
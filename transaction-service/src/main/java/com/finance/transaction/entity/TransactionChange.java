@@ -0,0 +1,19 @@
+package com.finance.transaction.entity;
+
+import com.finance.transaction.entity.Transaction.TransactionType;
+
+/**
+ * Resultado de uma alteração feita diretamente no banco:
+ * o estado atual da transação e os valores anteriores (para ajustar o saldo)
+ */
+public class TransactionChange {
+    public final Transaction current;
+    public final Money previousAmount;
+    public final TransactionType previousType;
+    
+    public TransactionChange(Transaction current, Money previousAmount, TransactionType previousType) {
+        this.current = current;
+        this.previousAmount = previousAmount;
+        this.previousType = previousType;
+    }
+}
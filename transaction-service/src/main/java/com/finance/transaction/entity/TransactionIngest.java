@@ -0,0 +1,118 @@
+package com.finance.transaction.entity;
+
+import com.finance.transaction.entity.Transaction.TransactionType;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Entidade TransactionIngest - Transação recebida pela ingestão assíncrona
+ * A tabela só contém as pendentes: o IngestDrainer grava cada uma em transactions,
+ * registra o resultado em TransactionIngestResult e apaga a linha
+ */
+@Entity
+@Table(name = "transaction_ingest")
+public class TransactionIngest extends PanacheEntityBase {
+    
+    /**
+     * Identity: o IngestDrainer processa as linhas visíveis em ordem de id; uma
+     * linha com id menor cujo commit atrasou continua pendente e entra no lote seguinte
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+    
+    @Column(nullable = false)
+    public Long userId;
+    
+    @Column(nullable = false, length = 255)
+    public String description;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    public BigDecimal amount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    public TransactionType type;
+    
+    @Column(nullable = false)
+    public LocalDate date;
+    
+    @Column(nullable = false)
+    public Instant createdAt;
+    
+    /**
+     * Construtor padrão (necessário para JPA)
+     */
+    public TransactionIngest() {
+    }
+    
+    /**
+     * Construtor com parâmetros
+     */
+    public TransactionIngest(Long userId, String description, BigDecimal amount, 
+                             TransactionType type, LocalDate date) {
+        this.userId = userId;
+        this.description = description;
+        this.amount = amount;
+        this.type = type;
+        this.date = date;
+        this.createdAt = Instant.now();
+    }
+    
+    /**
+     * Busca uma ingestão do usuário
+     * 
+     * @param id ID da ingestão
+     * @param userId ID do usuário
+     * @return Ingestão ou null
+     */
+    public static TransactionIngest findByIdAndUserId(Long id, Long userId) {
+        return find("id = ?1 and userId = ?2", id, userId).firstResult();
+    }
+    
+    /**
+     * Verifica se o usuário tem ingestões pendentes
+     * 
+     * @param userId ID do usuário
+     * @return true se houver alguma
+     */
+    public static boolean hasPending(Long userId) {
+        return count("userId", userId) > 0;
+    }
+    
+    /**
+     * Trava um lote de ingestões pendentes, em ordem de id, com FOR UPDATE SKIP LOCKED
+     * Linhas travadas por outra transação ficam para o próximo lote
+     * 
+     * @param userId ID do usuário ou null para todos
+     * @param limit Quantidade máxima
+     * @return Ingestões pendentes travadas até o fim da transação
+     */
+    public static List<TransactionIngest> lockPending(Long userId, int limit) {
+        Query query = getEntityManager().createNativeQuery("select * from transaction_ingest "
+                + (userId == null ? "" : "where user_id = ?2 ")
+                + "order by id limit ?1 for update skip locked", TransactionIngest.class)
+                .setParameter(1, limit);
+        if (userId != null) {
+            query.setParameter(2, userId);
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<TransactionIngest> pending = query.getResultList();
+        return pending;
+    }
+    
+    /**
+     * Remove ingestões já gravadas
+     * 
+     * @param ids IDs das ingestões
+     * @return Quantidade removida
+     */
+    public static long deleteByIds(List<Long> ids) {
+        return delete("id in ?1", ids);
+    }
+}
@@ -0,0 +1,67 @@
+package com.finance.transaction.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entidade TransactionIngestResult - Ingestão já gravada em transactions
+ * Guarda o id da transação criada para consulta do status, até o fim do período
+ * de retenção (finance.ingest.retention)
+ */
+@Entity
+@Table(name = "transaction_ingest_results")
+public class TransactionIngestResult extends PanacheEntityBase {
+    
+    /**
+     * Mesmo id da ingestão (TransactionIngest.id)
+     */
+    @Id
+    public Long id;
+    
+    @Column(nullable = false)
+    public Long userId;
+    
+    @Column(nullable = false)
+    public Long transactionId;
+    
+    @Column(nullable = false)
+    public Instant processedAt;
+    
+    /**
+     * Construtor padrão (necessário para JPA)
+     */
+    public TransactionIngestResult() {
+    }
+    
+    /**
+     * Construtor com parâmetros
+     */
+    public TransactionIngestResult(TransactionIngest ingest, Long transactionId, Instant processedAt) {
+        this.id = ingest.id;
+        this.userId = ingest.userId;
+        this.transactionId = transactionId;
+        this.processedAt = processedAt;
+    }
+    
+    /**
+     * Busca o resultado de uma ingestão do usuário
+     * 
+     * @param id ID da ingestão
+     * @param userId ID do usuário
+     * @return Resultado ou null se a ingestão ainda não foi gravada (ou não existe)
+     */
+    public static TransactionIngestResult findByIdAndUserId(Long id, Long userId) {
+        return find("id = ?1 and userId = ?2", id, userId).firstResult();
+    }
+    
+    /**
+     * Remove os resultados gravados antes de uma data
+     * 
+     * @param before Data limite
+     * @return Quantidade removida
+     */
+    public static long deleteProcessedBefore(Instant before) {
+        return delete("processedAt < ?1", before);
+    }
+}
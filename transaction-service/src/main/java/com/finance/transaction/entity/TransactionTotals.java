@@ -0,0 +1,26 @@
+package com.finance.transaction.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção com os totais agregados das transações de um usuário,
+ * calculados diretamente no banco
+ */
+public class TransactionTotals {
+    public final BigDecimal totalIncome;
+    public final BigDecimal totalExpense;
+    public final long transactionCount;
+    
+    public TransactionTotals(BigDecimal totalIncome, BigDecimal totalExpense, long transactionCount) {
+        this.totalIncome = totalIncome;
+        this.totalExpense = totalExpense;
+        this.transactionCount = transactionCount;
+    }
+    
+    /**
+     * @return Saldo (receitas - despesas)
+     */
+    public BigDecimal balance() {
+        return totalIncome.subtract(totalExpense);
+    }
+}
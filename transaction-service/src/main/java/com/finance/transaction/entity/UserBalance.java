@@ -0,0 +1,217 @@
+package com.finance.transaction.entity;
+
+import com.finance.transaction.entity.Transaction.TransactionType;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Entidade UserBalance - Saldo consolidado (ledger) de um usuário
+ * Mantido de forma incremental pelas operações de escrita em Transaction,
+ * evitando recalcular o saldo a partir de todo o histórico
+ */
+@Entity
+@Table(name = "user_balances")
+public class UserBalance extends PanacheEntityBase {
+
+    /**
+     * Upsert usado por apply: (userId, variação das receitas, variação das despesas,
+     * variação da quantidade); também executado pelo endpoint reativo
+     */
+    public static final String APPLY_SQL =
+            "insert into user_balances (user_id, balance, total_income, total_expense, transaction_count, version) "
+            + "values (?1, ?2 - ?3, ?2, ?3, ?4, 1) "
+            + "on conflict (user_id) do update set "
+            + "balance = user_balances.balance + excluded.balance, "
+            + "total_income = user_balances.total_income + excluded.total_income, "
+            + "total_expense = user_balances.total_expense + excluded.total_expense, "
+            + "transaction_count = user_balances.transaction_count + excluded.transaction_count, "
+            + "version = user_balances.version + 1";
+
+    /**
+     * ID do usuário (uma linha por usuário)
+     */
+    @Id
+    public Long userId;
+
+    /**
+     * Saldo atual (receitas - despesas)
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    public BigDecimal balance = BigDecimal.ZERO;
+
+    /**
+     * Total de receitas
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    public BigDecimal totalIncome = BigDecimal.ZERO;
+
+    /**
+     * Total de despesas
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    public BigDecimal totalExpense = BigDecimal.ZERO;
+
+    /**
+     * Quantidade de transações
+     */
+    @Column(nullable = false)
+    public Long transactionCount = 0L;
+
+    /**
+     * Versão de alteração: incrementada a cada escrita nas transações do usuário
+     * Não é @Version: o saldo só é alterado pelos upserts nativos abaixo
+     */
+    @Column(nullable = false)
+    public Long version = 0L;
+
+    /**
+     * Construtor padrão (necessário para JPA)
+     */
+    public UserBalance() {
+    }
+
+    /**
+     * Construtor com parâmetros
+     */
+    public UserBalance(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Busca o saldo consolidado de um usuário
+     *
+     * @param userId ID do usuário
+     * @return Saldo consolidado (zerado se o usuário ainda não tem transações)
+     */
+    public static UserBalance findByUserId(Long userId) {
+        return findByUserId(getEntityManager(), userId);
+    }
+
+    /**
+     * Mesma busca de findByUserId(userId) com um EntityManager explícito,
+     * para uso fora do Quarkus (benchmarks)
+     *
+     * @param entityManager EntityManager usado na busca
+     * @param userId ID do usuário
+     * @return Saldo consolidado (zerado se o usuário ainda não tem transações)
+     */
+    public static UserBalance findByUserId(EntityManager entityManager, Long userId) {
+        UserBalance balance = entityManager.find(UserBalance.class, userId);
+        return balance != null ? balance : new UserBalance(userId);
+    }
+
+    /**
+     * Busca a versão de alteração de um usuário (leitura por chave primária)
+     *
+     * @param userId ID do usuário
+     * @return Versão atual (0 se o usuário ainda não tem transações)
+     */
+    public static long versionOf(Long userId) {
+        return getEntityManager()
+                .createQuery("select b.version from UserBalance b where b.userId = ?1", Long.class)
+                .setParameter(1, userId)
+                .getResultStream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    /**
+     * Registra uma nova transação no saldo do usuário
+     *
+     * @param transaction Transação criada
+     */
+    public static void add(Transaction transaction) {
+        apply(transaction.userId,
+              incomeOf(transaction.type, transaction.amount),
+              expenseOf(transaction.type, transaction.amount),
+              1);
+    }
+
+    /**
+     * Remove uma transação do saldo do usuário
+     *
+     * @param transaction Transação removida
+     */
+    public static void remove(Transaction transaction) {
+        apply(transaction.userId,
+              incomeOf(transaction.type, transaction.amount).negate(),
+              expenseOf(transaction.type, transaction.amount).negate(),
+              -1);
+    }
+
+    /**
+     * Verifica se uma alteração muda o saldo (tipo ou valor diferentes)
+     */
+    public static boolean affectsBalance(TransactionType oldType, Money oldAmount,
+                                         TransactionType newType, Money newAmount) {
+        return oldType != newType || !oldAmount.equals(newAmount);
+    }
+    
+    /**
+     * Ajusta o saldo do usuário após a alteração de uma transação
+     *
+     * @param userId ID do usuário
+     * @param oldType Tipo anterior
+     * @param oldAmount Valor anterior
+     * @param newType Tipo atual
+     * @param newAmount Valor atual
+     */
+    public static void change(Long userId, TransactionType oldType, Money oldAmount,
+                              TransactionType newType, Money newAmount) {
+        apply(userId,
+              incomeOf(newType, newAmount).minus(incomeOf(oldType, oldAmount)),
+              expenseOf(newType, newAmount).minus(expenseOf(oldType, oldAmount)),
+              0);
+    }
+
+    /**
+     * Registra uma alteração que não muda o saldo (ex.: só a descrição),
+     * incrementando apenas a versão
+     *
+     * @param userId ID do usuário
+     */
+    public static void touch(Long userId) {
+        apply(userId, Money.ZERO, Money.ZERO, 0);
+    }
+
+    /**
+     * Aplica variações ao saldo do usuário com um único upsert atômico,
+     * sem carregar a linha nem depender de lock explícito
+     * Toda aplicação incrementa a versão de alteração do usuário
+     *
+     * @param userId ID do usuário
+     * @param incomeDelta Variação das receitas
+     * @param expenseDelta Variação das despesas
+     * @param countDelta Variação da quantidade de transações
+     */
+    public static void apply(Long userId, Money incomeDelta,
+                             Money expenseDelta, long countDelta) {
+        getEntityManager().createNativeQuery(APPLY_SQL)
+                .setParameter(1, userId)
+                .setParameter(2, incomeDelta.toBigDecimal())
+                .setParameter(3, expenseDelta.toBigDecimal())
+                .setParameter(4, countDelta)
+                .executeUpdate();
+    }
+
+    private static Money incomeOf(TransactionType type, Money amount) {
+        return type == TransactionType.INCOME ? amount : Money.ZERO;
+    }
+
+    private static Money expenseOf(TransactionType type, Money amount) {
+        return type == TransactionType.EXPENSE ? amount : Money.ZERO;
+    }
+
+    @Override
+    public String toString() {
+        return "UserBalance{" +
+                "userId=" + userId +
+                ", balance=" + balance +
+                ", totalIncome=" + totalIncome +
+                ", totalExpense=" + totalExpense +
+                ", transactionCount=" + transactionCount +
+                ", version=" + version +
+                '}';
+    }
+}
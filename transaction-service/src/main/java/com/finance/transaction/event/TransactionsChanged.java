@@ -0,0 +1,14 @@
+package com.finance.transaction.event;
+
+/**
+ * Evento CDI disparado quando as transações de um usuário são criadas,
+ * alteradas ou removidas
+ * Observadores com TransactionPhase.AFTER_SUCCESS só o recebem após o commit
+ */
+public class TransactionsChanged {
+    public final Long userId;
+    
+    public TransactionsChanged(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,71 @@
+package com.finance.transaction.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exportação binária em CBOR (RFC 8949)
+ * 
+ * Um mapa com o cabeçalho e as linhas:
+ * { "columns": ["id", "date", "amount", "type", "description"],
+ *   "scale": 2, "types": ["INCOME", "EXPENSE"],
+ *   "rows": [[id, epochDay, centavos, índice do tipo, descrição], ...] }
+ * 
+ * Valores em centavos (long) e datas em dias desde 1970-01-01 ocupam poucos bytes
+ * em CBOR; o tipo vira um índice em "types" e o userId não é repetido
+ */
+public class CborExportWriter implements TransactionExportWriter {
+    
+    public static final String MEDIA_TYPE = "application/cbor";
+    
+    private static final CBORFactory FACTORY = new CBORFactory();
+    private static final TransactionType[] TYPES = TransactionType.values();
+    
+    private final JsonGenerator generator;
+    
+    public CborExportWriter(OutputStream output) throws IOException {
+        generator = FACTORY.createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("columns");
+        generator.writeString("id");
+        generator.writeString("date");
+        generator.writeString("amount");
+        generator.writeString("type");
+        generator.writeString("description");
+        generator.writeEndArray();
+        generator.writeNumberField("scale", Money.SCALE);
+        generator.writeArrayFieldStart("types");
+        for (TransactionType type : TYPES) {
+            generator.writeString(type.name());
+        }
+        generator.writeEndArray();
+        // Sem tamanho conhecido: array de tamanho indefinido, escrito em streaming
+        generator.writeArrayFieldStart("rows");
+    }
+    
+    @Override
+    public void write(Transaction transaction) throws IOException {
+        generator.writeStartArray(null, 5);
+        generator.writeNumber(transaction.id);
+        generator.writeNumber(transaction.date.toEpochDay());
+        generator.writeNumber(transaction.amount.cents());
+        generator.writeNumber(transaction.type.ordinal());
+        generator.writeString(transaction.description);
+        generator.writeEndArray();
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+}
@@ -0,0 +1,69 @@
+package com.finance.transaction.export;
+
+import com.finance.transaction.entity.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exportação em CSV (RFC 4180): id,date,amount,type,description
+ * Mantém data ISO e valor decimal para ser legível em planilhas; a compressão
+ * (gzip) elimina a maior parte da repetição
+ * 
+ * Descrições que começam com =, +, -, @, tab ou CR recebem um ' na frente, para que
+ * a planilha não as interprete como fórmula (CSV injection)
+ */
+public class CsvExportWriter implements TransactionExportWriter {
+    
+    public static final String MEDIA_TYPE = "text/csv";
+    
+    /**
+     * Caracteres iniciais que o Excel/LibreOffice/Sheets tratam como início de fórmula
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    
+    private final Writer writer;
+    
+    public CsvExportWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 16 * 1024);
+        writer.write("id,date,amount,type,description\r\n");
+    }
+    
+    @Override
+    public void write(Transaction transaction) throws IOException {
+        writer.write(Long.toString(transaction.id));
+        writer.write(',');
+        writer.write(transaction.date.toString());
+        writer.write(',');
+        writer.write(transaction.amount.toString());
+        writer.write(',');
+        writer.write(transaction.type.name());
+        writer.write(',');
+        writeField(transaction.description);
+        writer.write("\r\n");
+    }
+    
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+    
+    private void writeField(String value) throws IOException {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,19 @@
+package com.finance.transaction.export;
+
+import com.finance.transaction.entity.Transaction;
+
+import java.io.IOException;
+
+/**
+ * Escreve as transações de uma exportação, uma a uma, à medida que são lidas do cursor
+ */
+public interface TransactionExportWriter {
+    
+    void write(Transaction transaction) throws IOException;
+    
+    /**
+     * Fecha a estrutura do formato e descarrega o que estiver em buffer
+     * (não fecha o stream de saída)
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,153 @@
+package com.finance.transaction.ingest;
+
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.TransactionIngest;
+import com.finance.transaction.entity.TransactionIngestResult;
+import com.finance.transaction.entity.UserBalance;
+import com.finance.transaction.event.TransactionsChanged;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumidor da ingestão assíncrona
+ * 
+ * Move as linhas pendentes de transaction_ingest para transactions em lotes,
+ * atualiza o saldo consolidado, grava um evento em transaction_outbox e o resultado
+ * em transaction_ingest_results e apaga as linhas da fila, tudo na mesma transação
+ * 
+ * Um advisory lock do PostgreSQL garante um único consumidor entre as instâncias, e
+ * o lote é travado com FOR UPDATE SKIP LOCKED. A fila não usa marca de posição por id:
+ * uma ingestão com id menor cujo commit atrasou continua na tabela e entra no lote
+ * seguinte. As de cada usuário entram em ordem de id entre as já visíveis
+ */
+@ApplicationScoped
+public class IngestDrainer {
+    
+    /**
+     * Chaves dos advisory locks (arbitrárias, únicas na aplicação;
+     * PartitionArchiver.ARCHIVE_LOCK usa a seguinte)
+     */
+    static final long INGEST_LOCK = 7_301_001L;
+    static final long OUTBOX_LOCK = 7_301_002L;
+    
+    @Inject
+    EntityManager entityManager;
+    
+    @Inject
+    Event<TransactionsChanged> transactionsChanged;
+    
+    @ConfigProperty(name = "finance.ingest.batch-size", defaultValue = "500")
+    int batchSize;
+    
+    @ConfigProperty(name = "finance.ingest.retention", defaultValue = "PT24H")
+    Duration retention;
+    
+    @Scheduled(every = "{finance.ingest.drain-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void drain() {
+        int drained;
+        do {
+            drained = QuarkusTransaction.requiringNew()
+                    .call(() -> tryLock(entityManager, INGEST_LOCK) ? drainPending(null) : 0);
+        } while (drained == batchSize);
+        
+        QuarkusTransaction.requiringNew()
+                .run(() -> TransactionIngestResult.deleteProcessedBefore(Instant.now().minus(retention)));
+    }
+    
+    /**
+     * Grava imediatamente as ingestões pendentes de um usuário (leitura consistente)
+     * Se a drenagem agendada estiver em andamento, espera por ela
+     * 
+     * @param userId ID do usuário
+     */
+    public void drainUser(Long userId) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (!TransactionIngest.hasPending(userId)) {
+                return;
+            }
+            lock(entityManager, INGEST_LOCK);
+            int drained;
+            do {
+                drained = drainPending(userId);
+            } while (drained == batchSize);
+            // Invalida o cache já, sem esperar o OutboxRelay
+            transactionsChanged.fire(new TransactionsChanged(userId));
+        });
+    }
+    
+    private int drainPending(Long userId) {
+        List<TransactionIngest> pending = TransactionIngest.lockPending(userId, batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        Instant now = Instant.now();
+        List<Long> ids = new ArrayList<>(pending.size());
+        Map<Long, LedgerDelta> deltas = new LinkedHashMap<>();
+        
+        for (TransactionIngest ingest : pending) {
+            Transaction transaction = new Transaction(ingest.userId, ingest.description, 
+                                                      Money.of(ingest.amount), ingest.type, ingest.date);
+            transaction.persist();
+            new TransactionIngestResult(ingest, transaction.id, now).persist();
+            ids.add(ingest.id);
+            
+            deltas.computeIfAbsent(ingest.userId, id -> new LedgerDelta()).add(transaction);
+        }
+        entityManager.flush();
+        
+        // Um único INSERT ... SELECT para os eventos do lote, antes de esvaziar a fila
+        entityManager.createNativeQuery(
+                "insert into transaction_outbox (event_type, user_id, transaction_id, amount, type, date) "
+                + "select 'CREATED', i.user_id, r.transaction_id, i.amount, i.type, i.date "
+                + "from transaction_ingest i join transaction_ingest_results r on r.id = i.id "
+                + "where i.id in (:ids) order by i.id")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        TransactionIngest.deleteByIds(ids);
+        
+        deltas.forEach((id, delta) -> UserBalance.apply(id, Money.ofCents(delta.incomeCents),
+                Money.ofCents(delta.expenseCents), delta.count));
+        return pending.size();
+    }
+    
+    static boolean tryLock(EntityManager entityManager, long key) {
+        return (Boolean) entityManager.createNativeQuery("select pg_try_advisory_xact_lock(?1)")
+                .setParameter(1, key)
+                .getSingleResult();
+    }
+    
+    static void lock(EntityManager entityManager, long key) {
+        entityManager.createNativeQuery("select 1 from (select pg_advisory_xact_lock(?1)) l")
+                .setParameter(1, key)
+                .getSingleResult();
+    }
+    
+    private static class LedgerDelta {
+        long incomeCents;
+        long expenseCents;
+        long count;
+        
+        void add(Transaction transaction) {
+            if (transaction.type == Transaction.TransactionType.INCOME) {
+                incomeCents = Math.addExact(incomeCents, transaction.amount.cents());
+            } else {
+                expenseCents = Math.addExact(expenseCents, transaction.amount.cents());
+            }
+            count++;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.finance.transaction.ingest;
+
+import com.finance.transaction.event.TransactionsChanged;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publica os eventos de transaction_outbox
+ * Cada lote é travado com FOR UPDATE SKIP LOCKED, sob o advisory lock, e apagado na
+ * mesma transação; gera um TransactionsChanged por usuário, entregue aos consumidores
+ * (cache de saldo/resumo e, através dele, o canal de invalidação entre instâncias)
+ * após o commit. Um evento com id menor cujo commit atrasou fica para o lote seguinte
+ */
+@ApplicationScoped
+public class OutboxRelay {
+    
+    @Inject
+    EntityManager entityManager;
+    
+    @Inject
+    Event<TransactionsChanged> transactionsChanged;
+    
+    @ConfigProperty(name = "finance.outbox.batch-size", defaultValue = "1000")
+    int batchSize;
+    
+    @Scheduled(every = "{finance.outbox.relay-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void relay() {
+        int published;
+        do {
+            published = QuarkusTransaction.requiringNew().call(this::publishBatch);
+        } while (published == batchSize);
+    }
+    
+    private int publishBatch() {
+        if (!IngestDrainer.tryLock(entityManager, IngestDrainer.OUTBOX_LOCK)) {
+            return 0;
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<Number> userIds = entityManager.createNativeQuery(
+                "delete from transaction_outbox "
+                + "where id in (select id from transaction_outbox order by id limit ?1 for update skip locked) "
+                + "returning user_id")
+                .setParameter(1, batchSize)
+                .getResultList();
+        
+        Set<Long> users = new LinkedHashSet<>();
+        for (Number userId : userIds) {
+            users.add(userId.longValue());
+        }
+        users.forEach(userId -> transactionsChanged.fire(new TransactionsChanged(userId)));
+        return userIds.size();
+    }
+}
@@ -0,0 +1,36 @@
+package com.finance.transaction.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Registra, por endpoint, quantos comandos SQL cada requisição executou
+ * (hibernate.statements.per.request), para identificar N+1 e varreduras completas
+ */
+public class StatementMetricsFilter {
+    
+    @Inject
+    MeterRegistry registry;
+    
+    @Inject
+    RequestStatements statements;
+    
+    @ServerResponseFilter
+    public void record(ResourceInfo resourceInfo) {
+        if (resourceInfo == null || resourceInfo.getResourceMethod() == null) {
+            return;
+        }
+        
+        String endpoint = resourceInfo.getResourceClass().getSimpleName() 
+                + "." + resourceInfo.getResourceMethod().getName();
+        DistributionSummary.builder("hibernate.statements.per.request")
+                .description("Comandos SQL executados por requisição")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(statements.count());
+    }
+}
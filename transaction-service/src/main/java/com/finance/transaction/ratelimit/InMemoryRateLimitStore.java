@@ -0,0 +1,58 @@
+package com.finance.transaction.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.arc.DefaultBean;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buckets locais, sem locks: o token bucket é representado pelo instante teórico
+ * em que ele estará cheio de novo (GCRA), um único long por chave atualizado com CAS
+ * Um bucket ocioso por mais que o tempo de reabastecimento está cheio e equivale a um
+ * novo, por isso pode ser descartado sem perder informação
+ * Usado por padrão (instância única) e como substituto em memória de um armazenamento
+ * compartilhado
+ */
+@DefaultBean
+@ApplicationScoped
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    @ConfigProperty(name = "finance.rate-limit.max-keys", defaultValue = "100000")
+    long maxKeys;
+
+    private final Map<String, Cache<String, AtomicLong>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(RateLimit limit, String key) {
+        long now = System.nanoTime();
+        long interval = limit.intervalNanos();
+        long burst = limit.burstNanos();
+        AtomicLong full = buckets.computeIfAbsent(limit.name, name -> newCache(burst))
+                .get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = full.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (full.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private Cache<String, AtomicLong> newCache(long burstNanos) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+}
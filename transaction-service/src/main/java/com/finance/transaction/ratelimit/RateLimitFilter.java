@@ -0,0 +1,111 @@
+package com.finance.transaction.ratelimit;
+
+import com.finance.transaction.dto.ErrorResponse;
+import com.finance.transaction.security.CurrentUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.net.SocketAddress;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica os limites de @RateLimited por cliente (ver clientKey), antes de o endpoint
+ * executar; o excesso recebe 429 com Retry-After
+ * O pacote ratelimit é igual no auth-service e no transaction-service, exceto por
+ * clientKey (os serviços não compartilham módulo); alterações devem ser replicadas
+ */
+public class RateLimitFilter {
+
+    private static final long DEFAULT_CAPACITY = 60;
+    private static final Duration DEFAULT_PERIOD = Duration.ofMinutes(1);
+
+    @Inject
+    RateLimitStore store;
+
+    @Inject
+    Config config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @Inject
+    CurrentUser currentUser;
+
+    @ConfigProperty(name = "finance.rate-limit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // Limite resolvido por endpoint (anotação + configuração), sem reflexão a cada requisição
+    private final Map<Method, Optional<RateLimit>> limits = new ConcurrentHashMap<>();
+
+    @ServerRequestFilter
+    public Response check(ResourceInfo resourceInfo, HttpServerRequest request) {
+        if (!enabled || resourceInfo == null || resourceInfo.getResourceMethod() == null) {
+            return null;
+        }
+
+        RateLimit limit = limits.computeIfAbsent(resourceInfo.getResourceMethod(),
+                method -> resolve(resourceInfo.getResourceClass(), method)).orElse(null);
+        if (limit == null) {
+            return null;
+        }
+
+        long wait = store.tryAcquire(limit, clientKey(request));
+        if (wait == 0) {
+            return null;
+        }
+
+        registry.counter("http.rate.limited", "limit", limit.name).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfter))
+                .type(MediaType.APPLICATION_JSON)
+                .entity(new ErrorResponse("Muitas requisições, tente novamente em " + retryAfter + "s"))
+                .build();
+    }
+
+    private Optional<RateLimit> resolve(Class<?> resourceClass, Method method) {
+        RateLimited annotation = method.getAnnotation(RateLimited.class);
+        if (annotation == null) {
+            annotation = resourceClass.getAnnotation(RateLimited.class);
+        }
+        if (annotation == null) {
+            return Optional.empty();
+        }
+
+        String prefix = "finance.rate-limit." + annotation.value();
+        return Optional.of(new RateLimit(annotation.value(),
+                config.getOptionalValue(prefix + ".capacity", Long.class).orElse(DEFAULT_CAPACITY),
+                config.getOptionalValue(prefix + ".period", Duration.class).orElse(DEFAULT_PERIOD)));
+    }
+
+    /**
+     * Usuário do token (claim userId); requisições sem token, ou com token sem o
+     * claim, são contadas pelo IP do cliente
+     * Atrás de um proxy, habilite quarkus.http.proxy.proxy-address-forwarding para
+     * que o IP considerado seja o do cliente, e não o do proxy
+     */
+    private String clientKey(HttpServerRequest request) {
+        Long userId = jwt.getRawToken() != null ? currentUser.idOrNull() : null;
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        SocketAddress address = request.remoteAddress();
+        return "ip:" + (address != null ? address.hostAddress() : "unknown");
+    }
+}
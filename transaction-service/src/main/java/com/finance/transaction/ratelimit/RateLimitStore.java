@@ -0,0 +1,20 @@
+package com.finance.transaction.ratelimit;
+
+/**
+ * Armazena o estado dos buckets de rate limiting
+ * Em uma instância única basta o InMemoryRateLimitStore; com várias instâncias,
+ * uma implementação sobre um armazenamento compartilhado (ex.: Redis com um script
+ * Lua aplicando o mesmo cálculo sobre o relógio do servidor) faz o limite valer
+ * para o conjunto, e não por réplica
+ */
+public interface RateLimitStore {
+
+    /**
+     * Tenta consumir uma ficha do bucket da chave
+     *
+     * @param limit Limite aplicado
+     * @param key Chave do cliente (RateLimitFilter.clientKey)
+     * @return 0 se a requisição foi aceita, ou o tempo em nanossegundos até haver ficha
+     */
+    long tryAcquire(RateLimit limit, String key);
+}
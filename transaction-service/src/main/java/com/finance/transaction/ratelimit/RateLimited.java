@@ -0,0 +1,21 @@
+package com.finance.transaction.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Aplica um limite de requisições ao endpoint (ou a todos os endpoints da classe)
+ * Os valores vêm de finance.rate-limit.&lt;nome&gt;.capacity e .period;
+ * a anotação no método tem precedência sobre a da classe
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /**
+     * Nome do limite na configuração
+     */
+    String value();
+}
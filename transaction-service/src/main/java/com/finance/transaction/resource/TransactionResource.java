@@ -1,45 +1,276 @@
 package com.finance.transaction.resource;
 
+import com.finance.transaction.cache.BalanceCache;
 import com.finance.transaction.dto.*;
+import com.finance.transaction.entity.Money;
 import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.TransactionChange;
+import com.finance.transaction.entity.TransactionIngest;
+import com.finance.transaction.entity.TransactionIngestResult;
+import com.finance.transaction.entity.TransactionTotals;
+import com.finance.transaction.entity.UserBalance;
+import com.finance.transaction.event.TransactionsChanged;
+import com.finance.transaction.export.CborExportWriter;
+import com.finance.transaction.export.CsvExportWriter;
+import com.finance.transaction.export.TransactionExportWriter;
+import com.finance.transaction.ingest.IngestDrainer;
+import com.finance.transaction.ratelimit.RateLimited;
+import com.finance.transaction.security.CurrentUser;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import jakarta.json.JsonNumber;
-import org.eclipse.microprofile.jwt.JsonWebToken;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollableResults;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Path("/transactions")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Authenticated
+@RateLimited("transactions")
+@RunOnVirtualThread
 public class TransactionResource {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    // Igual a quarkus.hibernate-orm.jdbc.statement-batch-size e à alocação da sequência
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_BATCH_LINES = 10000;
+    // Uma transação em NDJSON cabe com folga (a descrição tem no máximo 255 caracteres)
+    private static final int MAX_LINE_LENGTH = 4096;
+    private static final int MAX_SEARCH_LENGTH = 100;
+    // Limites das colunas description varchar(255) e amount numeric(10, 2)
+    static final int MAX_DESCRIPTION_LENGTH = 255;
+    static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    // Menor valor que não arredonda para zero centavos
+    private static final BigDecimal HALF_CENT = new BigDecimal("0.005");
+    // A busca pagina por OFFSET (a ordem é por relevância); limita páginas muito profundas
+    private static final int MAX_SEARCH_OFFSET = 10000;
+    // Respostas com ETag: o cliente pode guardá-las, mas revalida (If-None-Match) a cada uso
+    private static final CacheControl REVALIDATE = revalidate();
+    
+    @Inject
+    CurrentUser currentUser;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
     @Inject
-    JsonWebToken jwt;
+    BalanceCache balanceCache;
+    
+    @Inject
+    Event<TransactionsChanged> transactionsChanged;
+    
+    @Inject
+    IngestDrainer ingestDrainer;
+    
+    @ConfigProperty(name = "finance.transactions.require-version", defaultValue = "true")
+    boolean requireVersion;
 
     private Long getUserIdFromToken() {
-        Object claim = jwt.getClaim("userId");
+        return currentUser.id();
+    }
+    
+    /**
+     * Cache-Control: private, no-cache (o padrão de CacheControl inclui no-transform)
+     */
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+    
+    /**
+     * ETag fraco derivado da versão de alteração do usuário (UserBalance.version)
+     */
+    private static EntityTag etag(Long userId, long version) {
+        return new EntityTag(userId + "-" + version, true);
+    }
 
-        if (claim == null) {
-            throw new RuntimeException("userId não encontrado no token");
+    /**
+     * Converte o parâmetro limit; os parâmetros de consulta chegam como texto porque
+     * uma falha de conversão do próprio JAX-RS em @QueryParam responde 404, e não 400
+     * 
+     * @throws IllegalArgumentException com a mensagem para o cliente
+     */
+    static Integer parseLimit(String value) {
+        if (value == null) {
+            return null;
         }
-
-        if (claim instanceof JsonNumber jsonNumber) {
-            return jsonNumber.longValue();
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit deve ser um número inteiro");
         }
-
-        if (claim instanceof String str) {
-            return Long.valueOf(str);
+    }
+    
+    static LocalDate parseDate(String name, String value) {
+        if (value == null) {
+            return null;
         }
-
-        throw new RuntimeException("Formato inesperado para userId: " + claim.getClass());
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " deve ser uma data no formato AAAA-MM-DD");
+        }
+    }
+    
+    static Transaction.TransactionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Transaction.TransactionType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("type deve ser INCOME ou EXPENSE");
+        }
+    }
+    
+    /**
+     * Resposta 428 do PUT sem a versão esperada
+     */
+    static Response versionRequired() {
+        return Response.status(Response.Status.PRECONDITION_REQUIRED)
+                .entity(new ErrorResponse("version é obrigatória na alteração"))
+                .build();
+    }
+    
+    /**
+     * Valida os dados de uma transação
+     * 
+     * @return Mensagem de erro ou null se a requisição for válida
+     */
+    static String validate(TransactionRequest request) {
+        if (request == null) {
+            return "Transação é obrigatória";
+        }
+        
+        if (request.description == null) {
+            return "Descrição é obrigatória";
+        }
+        
+        String error = validateDescription(request.description);
+        if (error != null) {
+            return error;
+        }
+        
+        if (request.amount == null) {
+            return "Valor deve ser positivo";
+        }
+        
+        error = validateAmount(request.amount);
+        if (error != null) {
+            return error;
+        }
+        
+        if (request.type == null) {
+            return "Tipo é obrigatório (INCOME ou EXPENSE)";
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Valida os campos informados em uma alteração: campos nulos mantêm o valor
+     * atual, os demais seguem as mesmas regras da criação
+     * 
+     * @param request Dados da alteração
+     * @return Mensagem de erro ou null se for válida
+     */
+    static String validateUpdate(TransactionRequest request) {
+        if (request.description != null) {
+            String error = validateDescription(request.description);
+            if (error != null) {
+                return error;
+            }
+        }
+        
+        if (request.amount != null) {
+            return validateAmount(request.amount);
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Valida uma descrição informada (cabe na coluna)
+     * 
+     * @return Mensagem de erro ou null se for válida
+     */
+    static String validateDescription(String description) {
+        if (description.isBlank()) {
+            return "Descrição é obrigatória";
+        }
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            return "Descrição deve ter no máximo " + MAX_DESCRIPTION_LENGTH + " caracteres";
+        }
+        return null;
+    }
+    
+    /**
+     * Valida um valor informado: positivo depois de arredondado para centavos, como será
+     * gravado, e dentro de numeric(10, 2); fora disso o erro só apareceria no flush
+     * Compara sem arredondar, pois setScale de um expoente enorme (1e-999999999) é caro
+     * 
+     * @return Mensagem de erro ou null se for válido
+     */
+    static String validateAmount(BigDecimal amount) {
+        if (amount.compareTo(HALF_CENT) < 0) {
+            return "Valor deve ser positivo";
+        }
+        if (amount.compareTo(MAX_AMOUNT.add(HALF_CENT)) >= 0) {
+            return "Valor deve ser no máximo " + MAX_AMOUNT;
+        }
+        return null;
+    }
+    
+    private Transaction toTransaction(Long userId, TransactionRequest request) {
+        Transaction transaction = new Transaction();
+        transaction.userId = userId;
+        transaction.description = request.description;
+        transaction.amount = Money.of(request.amount);
+        transaction.type = request.type;
+        transaction.date = request.date != null ? request.date : LocalDate.now();
+        return transaction;
     }
 
     /**
@@ -47,55 +278,503 @@ public class TransactionResource {
      */
     @POST
     @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
     @Transactional
     public Response create(TransactionRequest request) {
         // Validações
-        if (request.description == null || request.description.isBlank()) {
+        String error = validate(request);
+        if (error != null) {
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Descrição é obrigatória"))
+                    .entity(new ErrorResponse(error))
                     .build();
         }
         
-        if (request.amount == null || request.amount.signum() <= 0) {
+        // Cria a transação
+        Transaction transaction = toTransaction(getUserIdFromToken(), request);
+        transaction.persist();
+        UserBalance.add(transaction);
+        transactionsChanged.fire(new TransactionsChanged(transaction.userId));
+        
+        return Response.status(Response.Status.CREATED)
+                .entity(new TransactionResponse(transaction))
+                .build();
+    }
+    
+    /**
+     * Ingestão assíncrona: valida e grava a transação na fila (transaction_ingest),
+     * respondendo 202 sem esperar a gravação em transactions. O IngestDrainer a
+     * grava em segundo plano, na ordem de chegada por usuário; o status fica em
+     * GET /transactions/ingest/{id} e leituras com consistent=true já a incluem
+     */
+    @POST
+    @Path("/ingest")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
+    @Transactional
+    public Response ingest(TransactionRequest request) {
+        String error = validate(request);
+        if (error != null) {
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Valor deve ser positivo"))
+                    .entity(new ErrorResponse(error))
                     .build();
         }
         
-        if (request.type == null) {
+        TransactionIngest ingest = new TransactionIngest(getUserIdFromToken(), request.description,
+                request.amount, request.type, request.date != null ? request.date : LocalDate.now());
+        ingest.persist();
+        
+        return Response.accepted(new IngestResponse(ingest))
+                .location(URI.create("/transactions/ingest/" + ingest.id))
+                .build();
+    }
+    
+    /**
+     * Status de uma ingestão assíncrona (PENDING ou DONE, com o id da transação;
+     * o resultado fica disponível por finance.ingest.retention)
+     */
+    @GET
+    @Path("/ingest/{id}")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response getIngest(@PathParam("id") Long id) {
+        Long userId = getUserIdFromToken();
+        
+        TransactionIngest ingest = TransactionIngest.findByIdAndUserId(id, userId);
+        if (ingest != null) {
+            return Response.ok(new IngestResponse(ingest)).build();
+        }
+        
+        // O drainer apaga a pendente e grava o resultado na mesma transação:
+        // se ela já saiu da fila, o resultado está visível nesta consulta
+        TransactionIngestResult result = TransactionIngestResult.findByIdAndUserId(id, userId);
+        if (result == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(new ErrorResponse("Ingestão não encontrada"))
+                    .build();
+        }
+        
+        return Response.ok(new IngestResponse(result)).build();
+    }
+    
+    /**
+     * Importa várias transações de uma vez (array JSON)
+     * Cada item é validado com as mesmas regras do create; itens inválidos
+     * são reportados na resposta sem impedir a importação dos demais
+     * O tamanho do corpo é limitado por quarkus.http.limits.max-body-size; acima de
+     * MAX_BATCH_LINES itens o lote é recusado com 413 antes de gravar qualquer item
+     */
+    @POST
+    @Path("/batch")
+    @RolesAllowed("USER")
+    @RateLimited("transactions-batch")
+    @Timed(value = "transactions.requests", histogram = true)
+    @Transactional
+    public Response createBatch(List<TransactionRequest> requests) {
+        if (requests == null) {
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Tipo é obrigatório (INCOME ou EXPENSE)"))
+                    .entity(new ErrorResponse("Lista de transações é obrigatória"))
                     .build();
         }
         
-        // Cria a transação
-        Transaction transaction = new Transaction();
-        transaction.userId = getUserIdFromToken();
-        transaction.description = request.description;
-        transaction.amount = request.amount;
-        transaction.type = request.type;
-        transaction.date = request.date != null ? request.date : java.time.LocalDate.now();
-        transaction.persist();
+        if (requests.size() > MAX_BATCH_LINES) {
+            return batchTooLarge("Limite de " + MAX_BATCH_LINES + " transações por lote excedido").getResponse();
+        }
         
-        return Response.status(Response.Status.CREATED)
-                .entity(new TransactionResponse(transaction))
-                .build();
+        BatchImport batch = new BatchImport(getUserIdFromToken());
+        for (TransactionRequest request : requests) {
+            batch.add(request);
+        }
+        
+        return Response.ok(batch.finish()).build();
+    }
+    
+    /**
+     * Importa várias transações de uma vez (NDJSON, uma transação por linha)
+     * O corpo é lido linha a linha, sem carregar o arquivo inteiro em memória
+     * Uma linha maior que MAX_LINE_LENGTH ou mais de MAX_BATCH_LINES transações
+     * interrompem a leitura com 413 e desfazem o lote inteiro
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(NDJSON)
+    @RolesAllowed("USER")
+    @RateLimited("transactions-batch")
+    @Timed(value = "transactions.requests", histogram = true)
+    @Transactional
+    public Response createBatchNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(TransactionRequest.class);
+        BatchImport batch = new BatchImport(getUserIdFromToken());
+        
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        StringBuilder buffer = new StringBuilder();
+        String line;
+        while ((line = readLine(lines, buffer, batch.line + 1)) != null) {
+            if (line.isBlank()) {
+                batch.skip();
+                continue;
+            }
+            try {
+                batch.add(reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                batch.reject("JSON inválido");
+            }
+        }
+        
+        return Response.ok(batch.finish()).build();
     }
     
     /**
-     * Lista todas as transações do usuário
+     * Lê uma linha do corpo NDJSON sem ultrapassar MAX_LINE_LENGTH caracteres
+     * 
+     * @return Linha sem o terminador, ou null no fim do corpo
+     */
+    private static String readLine(BufferedReader reader, StringBuilder buffer, int lineNumber) throws IOException {
+        buffer.setLength(0);
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                return stripCarriageReturn(buffer);
+            }
+            if (buffer.length() == MAX_LINE_LENGTH) {
+                throw batchTooLarge("Linha " + lineNumber + " excede " + MAX_LINE_LENGTH + " caracteres");
+            }
+            buffer.append((char) c);
+        }
+        return buffer.length() > 0 ? stripCarriageReturn(buffer) : null;
+    }
+    
+    private static String stripCarriageReturn(StringBuilder buffer) {
+        int length = buffer.length();
+        return length > 0 && buffer.charAt(length - 1) == '\r' 
+                ? buffer.substring(0, length - 1) : buffer.toString();
+    }
+    
+    /**
+     * Recusa o lote com 413; lançada dentro do @Transactional, desfaz o que já foi gravado
+     */
+    private static WebApplicationException batchTooLarge(String message) {
+        return new WebApplicationException(Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(new ErrorResponse(message))
+                .build());
+    }
+    
+    /**
+     * Importação em lote: persiste as transações em blocos de BATCH_SIZE,
+     * enviados ao banco com JDBC batching, e atualiza o saldo uma única vez no fim
+     */
+    private class BatchImport {
+        private final Long userId;
+        private final EntityManager em = Transaction.getEntityManager();
+        private final List<BatchItemResponse> results = new ArrayList<>();
+        // Totais em centavos: somar em long não aloca por linha
+        private long incomeCents;
+        private long expenseCents;
+        private int line;
+        private int items;
+        private int created;
+        private int failed;
+        private int pending;
+        
+        BatchImport(Long userId) {
+            this.userId = userId;
+        }
+        
+        void add(TransactionRequest request) {
+            next();
+            
+            String error = validate(request);
+            if (error != null) {
+                fail(error);
+                return;
+            }
+            
+            Transaction transaction = toTransaction(userId, request);
+            transaction.persist();
+            if (transaction.type == Transaction.TransactionType.INCOME) {
+                incomeCents = Math.addExact(incomeCents, transaction.amount.cents());
+            } else {
+                expenseCents = Math.addExact(expenseCents, transaction.amount.cents());
+            }
+            results.add(new BatchItemResponse(line, Response.Status.CREATED.getStatusCode(), 
+                                              transaction.id, null));
+            created++;
+            
+            if (++pending == BATCH_SIZE) {
+                em.flush();
+                em.clear();
+                pending = 0;
+            }
+        }
+        
+        void skip() {
+            line++;
+        }
+        
+        void reject(String error) {
+            next();
+            fail(error);
+        }
+        
+        /**
+         * Avança para o próximo item; passar de MAX_BATCH_LINES interrompe o lote
+         */
+        private void next() {
+            line++;
+            if (++items > MAX_BATCH_LINES) {
+                throw batchTooLarge("Limite de " + MAX_BATCH_LINES + " transações por lote excedido");
+            }
+        }
+        
+        private void fail(String error) {
+            results.add(new BatchItemResponse(line, Response.Status.BAD_REQUEST.getStatusCode(), 
+                                              null, error));
+            failed++;
+        }
+        
+        BatchResponse finish() {
+            if (created > 0) {
+                UserBalance.apply(userId, Money.ofCents(incomeCents), Money.ofCents(expenseCents), created);
+                transactionsChanged.fire(new TransactionsChanged(userId));
+            }
+            return new BatchResponse(created, failed, results);
+        }
+    }
+    
+    /**
+     * Lista as transações do usuário, opcionalmente filtradas por período (from/to) e tipo
+     * Sem limit e cursor retorna todas as transações do filtro; com limit e/ou cursor
+     * retorna uma página ordenada por data e id decrescentes
+     * Com If-None-Match igual ao ETag atual responde 304 após ler só a versão
+     * Com consistent=true, grava antes as ingestões assíncronas pendentes do usuário
      */
     @GET
     @RolesAllowed("USER")
-    public Response list() {
+    @RateLimited("transactions-list")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response list(@QueryParam("limit") String limitParam, @QueryParam("cursor") String cursor,
+                         @QueryParam("from") String fromParam, @QueryParam("to") String toParam,
+                         @QueryParam("type") String typeParam,
+                         @QueryParam("consistent") boolean consistent,
+                         @Context Request request) {
+        Integer limit;
+        LocalDate from;
+        LocalDate to;
+        Transaction.TransactionType type;
+        try {
+            limit = parseLimit(limitParam);
+            from = parseDate("from", fromParam);
+            to = parseDate("to", toParam);
+            type = parseType(typeParam);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+        
+        if (from != null && to != null && from.isAfter(to)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("from deve ser anterior ou igual a to"))
+                    .build();
+        }
+        
+        boolean paged = limit != null || cursor != null;
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (paged && (pageSize <= 0 || pageSize > MAX_PAGE_SIZE)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("limit deve estar entre 1 e " + MAX_PAGE_SIZE))
+                    .build();
+        }
+        
+        PageCursor after = null;
+        if (cursor != null) {
+            try {
+                after = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse(e.getMessage()))
+                        .build();
+            }
+        }
+        
+        // Só grava as ingestões pendentes depois de validar a requisição inteira
         Long userId = getUserIdFromToken();
-        List<Transaction> transactions = Transaction.findByUserId(userId);
+        if (consistent) {
+            ingestDrainer.drainUser(userId);
+        }
+        
+        // A versão é lida antes da listagem: uma escrita concorrente deixa o ETag
+        // mais antigo que o corpo (o cliente só baixa de novo), nunca o contrário
+        EntityTag tag = etag(userId, UserBalance.versionOf(userId));
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.tag(tag).cacheControl(REVALIDATE).build();
+        }
+        
+        if (!paged) {
+            List<Transaction> transactions = Transaction.findByUserId(userId, from, to, type);
+            
+            List<TransactionResponse> response = transactions.stream()
+                    .map(TransactionResponse::new)
+                    .collect(Collectors.toList());
+            
+            return Response.ok(response).tag(tag).cacheControl(REVALIDATE).build();
+        }
+        
+        List<Transaction> transactions = Transaction.findPageByUserId(userId, from, to, type,
+                after != null ? after.date : null, after != null ? after.id : null, pageSize);
         
-        List<TransactionResponse> response = transactions.stream()
+        List<TransactionResponse> items = transactions.stream()
                 .map(TransactionResponse::new)
                 .collect(Collectors.toList());
         
-        return Response.ok(response).build();
+        String nextCursor = null;
+        if (transactions.size() == pageSize) {
+            Transaction last = transactions.get(transactions.size() - 1);
+            nextCursor = new PageCursor(last.date, last.id).encode();
+        }
+        
+        return Response.ok(new TransactionPageResponse(items, nextCursor))
+                .tag(tag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+    
+    /**
+     * Exporta todas as transações do usuário em NDJSON (uma transação por linha),
+     * lendo do banco com cursor para manter a memória constante
+     */
+    @GET
+    @Path("/stream")
+    @Produces(NDJSON)
+    @RolesAllowed("USER")
+    @RateLimited("transactions-list")
+    @Timed(value = "transactions.requests", histogram = true)
+    public StreamingOutput streamNdjson() {
+        Long userId = getUserIdFromToken();
+        return output -> stream(userId, output, false);
+    }
+    
+    /**
+     * Exporta todas as transações do usuário como um array JSON enviado em partes
+     */
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("USER")
+    @RateLimited("transactions-list")
+    @Timed(value = "transactions.requests", histogram = true)
+    public StreamingOutput streamJsonArray() {
+        Long userId = getUserIdFromToken();
+        return output -> stream(userId, output, true);
+    }
+    
+    private void stream(Long userId, OutputStream output, boolean array) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writerFor(TransactionResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (!array) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+        
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                EntityManager em = Transaction.getEntityManager();
+                try (ScrollableResults<Transaction> rows = Transaction.scrollByUserId(userId)) {
+                    if (array) {
+                        generator.writeStartArray();
+                    }
+                    boolean empty = true;
+                    while (rows.next()) {
+                        Transaction transaction = rows.get();
+                        rowWriter.writeValue(generator, new TransactionResponse(transaction));
+                        em.detach(transaction);
+                        empty = false;
+                    }
+                    if (array) {
+                        generator.writeEndArray();
+                    } else if (!empty) {
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Exporta todas as transações do usuário em CSV, lendo com cursor (memória constante)
+     * Comprimido com gzip quando o cliente aceita (Accept-Encoding)
+     */
+    @GET
+    @Path("/export")
+    @Produces(CsvExportWriter.MEDIA_TYPE)
+    @RolesAllowed("USER")
+    @RateLimited("transactions-export")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response exportCsv(@HeaderParam("Accept-Encoding") String acceptEncoding) {
+        return export(getUserIdFromToken(), acceptEncoding, "transactions.csv", CsvExportWriter::new);
+    }
+    
+    /**
+     * Exporta todas as transações do usuário em CBOR (valores em centavos, datas em epoch day)
+     */
+    @GET
+    @Path("/export")
+    @Produces(CborExportWriter.MEDIA_TYPE)
+    @RolesAllowed("USER")
+    @RateLimited("transactions-export")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response exportCbor(@HeaderParam("Accept-Encoding") String acceptEncoding) {
+        return export(getUserIdFromToken(), acceptEncoding, "transactions.cbor", CborExportWriter::new);
+    }
+    
+    private interface ExportFormat {
+        TransactionExportWriter open(OutputStream output) throws IOException;
+    }
+    
+    private Response export(Long userId, String acceptEncoding, String fileName, ExportFormat format) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        
+        StreamingOutput body = output -> {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, 16 * 1024) : null;
+            TransactionExportWriter writer = format.open(compressed != null ? compressed : output);
+            
+            try {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    EntityManager em = Transaction.getEntityManager();
+                    try (ScrollableResults<Transaction> rows = Transaction.scrollByUserId(userId)) {
+                        while (rows.next()) {
+                            Transaction transaction = rows.get();
+                            writer.write(transaction);
+                            em.detach(transaction);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            
+            writer.finish();
+            if (compressed != null) {
+                compressed.finish();
+            }
+        };
+        
+        Response.ResponseBuilder response = Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .header("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.header("Content-Encoding", "gzip");
+        }
+        return response.build();
     }
     
     /**
@@ -104,6 +783,7 @@ public class TransactionResource {
     @GET
     @Path("/{id}")
     @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
     public Response getById(@PathParam("id") Long id) {
         Long userId = getUserIdFromToken();
         Transaction transaction = Transaction.findByIdAndUserId(id, userId);
@@ -118,35 +798,59 @@ public class TransactionResource {
     }
     
     /**
-     * Atualiza uma transação
+     * Atualiza uma transação; campos nulos mantêm o valor atual
+     * A versão lida pelo cliente é obrigatória (finance.transactions.require-version),
+     * para que a alteração não sobrescreva outra concorrente sem perceber; com a opção
+     * desligada, uma alteração sem versão sobrescreve a atual (última escrita vence)
      */
     @PUT
     @Path("/{id}")
     @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
     @Transactional
     public Response update(@PathParam("id") Long id, TransactionRequest request) {
+        if (request == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Transação é obrigatória"))
+                    .build();
+        }
+        if (request.version == null && requireVersion) {
+            return versionRequired();
+        }
+        
+        String error = validateUpdate(request);
+        if (error != null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(error))
+                    .build();
+        }
+        
         Long userId = getUserIdFromToken();
-        Transaction transaction = Transaction.findByIdAndUserId(id, userId);
         
-        if (transaction == null) {
+        // Um único UPDATE ... RETURNING, condicionado à versão informada
+        TransactionChange change = Transaction.updateByIdAndUserId(id, userId, request.version,
+                request.description, Money.of(request.amount), request.type, request.date);
+        
+        if (change == null) {
+            if (Transaction.existsByIdAndUserId(id, userId)) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity(new ErrorResponse("Transação alterada por outra requisição"))
+                        .build();
+            }
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ErrorResponse("Transação não encontrada"))
                     .build();
         }
         
-        // Atualiza os campos
-        if (request.description != null) {
-            transaction.description = request.description;
-        }
-        if (request.amount != null) {
-            transaction.amount = request.amount;
-        }
-        if (request.type != null) {
-            transaction.type = request.type;
-        }
-        if (request.date != null) {
-            transaction.date = request.date;
+        Transaction transaction = change.current;
+        if (UserBalance.affectsBalance(change.previousType, change.previousAmount,
+                transaction.type, transaction.amount)) {
+            UserBalance.change(userId, change.previousType, change.previousAmount,
+                    transaction.type, transaction.amount);
+        } else {
+            UserBalance.touch(userId);
         }
+        transactionsChanged.fire(new TransactionsChanged(userId));
         
         return Response.ok(new TransactionResponse(transaction)).build();
     }
@@ -157,10 +861,13 @@ public class TransactionResource {
     @DELETE
     @Path("/{id}")
     @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
     @Transactional
     public Response delete(@PathParam("id") Long id) {
         Long userId = getUserIdFromToken();
-        Transaction transaction = Transaction.findByIdAndUserId(id, userId);
+        
+        // Um único DELETE ... RETURNING devolve o que é preciso para ajustar o saldo
+        Transaction transaction = Transaction.deleteByIdAndUserId(id, userId);
         
         if (transaction == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -168,21 +875,173 @@ public class TransactionResource {
                     .build();
         }
         
-        transaction.delete();
+        UserBalance.remove(transaction);
+        transactionsChanged.fire(new TransactionsChanged(userId));
         
         return Response.noContent().build();
     }
     
     /**
-     * Obtém o saldo do usuário
+     * Busca transações pela descrição (texto completo, prefixo e substring),
+     * ordenadas por relevância; o cursor da próxima página é opaco para o cliente
+     */
+    @GET
+    @Path("/search")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response search(@QueryParam("q") String q, @QueryParam("limit") String limitParam,
+                           @QueryParam("cursor") String cursor) {
+        Integer limit;
+        try {
+            limit = parseLimit(limitParam);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+        
+        if (q == null || q.isBlank() || q.length() > MAX_SEARCH_LENGTH) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("q deve ter entre 1 e " + MAX_SEARCH_LENGTH + " caracteres"))
+                    .build();
+        }
+        
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("limit deve estar entre 1 e " + MAX_PAGE_SIZE))
+                    .build();
+        }
+        
+        int offset = 0;
+        if (cursor != null) {
+            try {
+                offset = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                offset = -1;
+            }
+            if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse("Cursor inválido"))
+                        .build();
+            }
+        }
+        
+        List<Transaction> transactions = Transaction.search(getUserIdFromToken(), q, offset, pageSize);
+        
+        List<TransactionResponse> items = transactions.stream()
+                .map(TransactionResponse::new)
+                .collect(Collectors.toList());
+        
+        String nextCursor = transactions.size() == pageSize && offset + pageSize <= MAX_SEARCH_OFFSET
+                ? String.valueOf(offset + pageSize) : null;
+        
+        return Response.ok(new TransactionPageResponse(items, nextCursor)).build();
+    }
+    
+    /**
+     * Obtém o saldo do usuário a partir do saldo consolidado (uma única linha, lida
+     * por chave primária junto com a versão que gera o ETag)
+     * Com If-None-Match igual ao ETag atual responde 304 sem serializar o corpo
+     * Com consistent=true, grava antes as ingestões assíncronas pendentes do usuário
      */
     @GET
     @Path("/balance")
     @RolesAllowed("USER")
-    public Response getBalance() {
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response getBalance(@QueryParam("consistent") boolean consistent, @Context Request request) {
+        Long userId = getUserIdFromToken();
+        if (consistent) {
+            ingestDrainer.drainUser(userId);
+        }
+        
+        BalanceResponse response = loadBalance(userId);
+        EntityTag tag = etag(userId, response.version);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.tag(tag).cacheControl(REVALIDATE).build();
+        }
+        
+        return Response.ok(response).tag(tag).cacheControl(REVALIDATE).build();
+    }
+    
+    private BalanceResponse loadBalance(Long userId) {
+        UserBalance balance = UserBalance.findByUserId(userId);
+        BalanceResponse response = new BalanceResponse(balance.balance, balance.totalIncome,
+                balance.totalExpense, userId, balance.transactionCount);
+        response.version = balance.version;
+        return response;
+    }
+    
+    /**
+     * Obtém o resumo do usuário (saldo, receitas, despesas e quantidade)
+     * calculado em uma única consulta agregada sobre as transações
+     */
+    @GET
+    @Path("/summary")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response getSummary(@QueryParam("consistent") boolean consistent) {
         Long userId = getUserIdFromToken();
-        java.math.BigDecimal balance = Transaction.calculateBalance(userId);
+        if (consistent) {
+            ingestDrainer.drainUser(userId);
+        }
         
-        return Response.ok(new BalanceResponse(balance, userId)).build();
+        // Entrada calculada antes da última escrita e guardada depois da invalidação
+        // é recarregada pelo cache
+        BalanceResponse response = balanceCache.summary(userId, UserBalance.versionOf(userId), this::loadSummary);
+        return Response.ok(response).build();
+    }
+    
+    private BalanceResponse loadSummary(Long userId) {
+        // A versão é lida antes da soma: uma escrita entre as duas consultas deixa a
+        // entrada com versão antiga, e a próxima leitura a recalcula
+        long version = UserBalance.versionOf(userId);
+        TransactionTotals totals = Transaction.summarize(userId);
+        BalanceResponse response = new BalanceResponse(totals.balance(), totals.totalIncome,
+                totals.totalExpense, userId, totals.transactionCount);
+        response.version = version;
+        return response;
+    }
+    
+    /**
+     * Obtém receitas e despesas somadas por dia ou por mês, calculadas no banco
+     */
+    @GET
+    @Path("/stats")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.requests", histogram = true)
+    public Response getStats(@QueryParam("groupBy") @DefaultValue("month") String groupBy,
+                             @QueryParam("from") String fromParam, @QueryParam("to") String toParam) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = parseDate("from", fromParam);
+            to = parseDate("to", toParam);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        }
+        
+        Long userId = getUserIdFromToken();
+        
+        if (!"day".equals(groupBy) && !"month".equals(groupBy)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("groupBy deve ser day ou month"))
+                    .build();
+        }
+        
+        if (from != null && to != null && from.isAfter(to)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("from deve ser anterior ou igual a to"))
+                    .build();
+        }
+        
+        List<StatsBucketResponse> response = Transaction.sumByPeriod(userId, groupBy, from, to).stream()
+                .map(StatsBucketResponse::new)
+                .collect(Collectors.toList());
+        
+        return Response.ok(response).build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.finance.transaction.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import javax.crypto.SecretKey;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * JWTParser usado na autenticação das requisições
+ * Delega ao parser padrão do SmallRye e guarda o resultado no TokenCache, de modo
+ * que requisições repetidas com o mesmo bearer token não refaçam a verificação RSA
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CachingJWTParser implements JWTParser {
+    
+    @Inject
+    DefaultJWTParser delegate;
+    
+    @Inject
+    TokenCache tokenCache;
+    
+    @Inject
+    MeterRegistry registry;
+    
+    private Timer verifyTimer;
+    private Counter hits;
+    private Counter misses;
+    
+    @PostConstruct
+    void init() {
+        verifyTimer = Timer.builder("jwt.verify.duration")
+                .description("Duração da verificação de assinatura do JWT")
+                .publishPercentileHistogram()
+                .register(registry);
+        hits = Counter.builder("jwt.cache").tag("result", "hit").register(registry);
+        misses = Counter.builder("jwt.cache").tag("result", "miss").register(registry);
+    }
+    
+    @Override
+    public JsonWebToken parse(String token) throws ParseException {
+        TokenCache.CachedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            hits.increment();
+            return cached.principal;
+        }
+        
+        misses.increment();
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            JsonWebToken principal = delegate.parse(token);
+            return tokenCache.put(token, principal).principal;
+        } finally {
+            sample.stop(verifyTimer);
+        }
+    }
+    
+    @Override
+    public JsonWebToken parse(String token, JWTAuthContextInfo context) throws ParseException {
+        return delegate.parse(token, context);
+    }
+    
+    @Override
+    public JsonWebToken verify(String token, PublicKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+    
+    @Override
+    public JsonWebToken verify(String token, SecretKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+    
+    @Override
+    public JsonWebToken verify(String token, String secret) throws ParseException {
+        return delegate.verify(token, secret);
+    }
+    
+    @Override
+    public JsonWebToken decrypt(String token, PrivateKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+    
+    @Override
+    public JsonWebToken decrypt(String token, SecretKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+    
+    @Override
+    public JsonWebToken decrypt(String token, String secret) throws ParseException {
+        return delegate.decrypt(token, secret);
+    }
+    
+    @Override
+    public JsonWebToken parseOnly(String token) throws ParseException {
+        return delegate.parseOnly(token);
+    }
+}
@@ -0,0 +1,47 @@
+package com.finance.transaction.security;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotAuthorizedException;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * userId do token da requisição atual, extraído uma única vez por requisição
+ * e compartilhado pelo rate limiting e pelos endpoints. O token já chega verificado
+ * (CachingJWTParser); ler o claim não exige recalcular o hash do token
+ */
+@RequestScoped
+public class CurrentUser {
+    
+    @Inject
+    JsonWebToken jwt;
+    
+    private Long userId;
+    
+    /**
+     * ID do usuário autenticado
+     * Um token sem o claim userId responde 401
+     * 
+     * @return ID do usuário
+     */
+    public Long id() {
+        Long id = idOrNull();
+        if (id == null) {
+            throw new NotAuthorizedException("userId não encontrado no token", "Bearer");
+        }
+        return id;
+    }
+    
+    /**
+     * ID do usuário autenticado, ou null se o token não tiver o claim userId
+     * (o rate limiting então conta a requisição pelo IP)
+     * 
+     * @return ID do usuário ou null
+     */
+    public Long idOrNull() {
+        if (userId == null) {
+            userId = TokenCache.extractUserId(jwt);
+        }
+        return userId;
+    }
+}
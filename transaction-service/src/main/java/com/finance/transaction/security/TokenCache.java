@@ -0,0 +1,148 @@
+package com.finance.transaction.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.json.JsonNumber;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Cache de tokens JWT já verificados
+ * A chave é o hash SHA-256 do token (o token bruto não fica em memória) e cada
+ * entrada expira no "exp" do próprio token, limitada por um TTL máximo
+ */
+@ApplicationScoped
+public class TokenCache {
+    
+    @ConfigProperty(name = "finance.jwt.cache.max-size", defaultValue = "10000")
+    long maxSize;
+    
+    @ConfigProperty(name = "finance.jwt.cache.max-ttl", defaultValue = "PT1H")
+    Duration maxTtl;
+    
+    private Cache<String, CachedToken> cache;
+    
+    /**
+     * Token verificado
+     */
+    public static final class CachedToken {
+        public final JsonWebToken principal;
+        
+        CachedToken(JsonWebToken principal) {
+            this.principal = principal;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        return timeToLive(value.principal);
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, 
+                                                  long currentTime, long currentDuration) {
+                        return timeToLive(value.principal);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, 
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
+    /**
+     * Busca um token já verificado
+     * 
+     * @param rawToken Token recebido no header Authorization
+     * @return Token em cache ou null
+     */
+    public CachedToken get(String rawToken) {
+        return cache.getIfPresent(hash(rawToken));
+    }
+    
+    /**
+     * Armazena um token recém-verificado
+     * 
+     * @param rawToken Token recebido no header Authorization
+     * @param principal Token verificado
+     * @return Entrada armazenada
+     */
+    public CachedToken put(String rawToken, JsonWebToken principal) {
+        CachedToken cached = new CachedToken(principal);
+        if (timeToLive(principal) > 0) {
+            cache.put(hash(rawToken), cached);
+        }
+        return cached;
+    }
+    
+    /**
+     * Extrai o claim userId de um token (numérico ou string)
+     * 
+     * @param jwt Token verificado
+     * @return ID do usuário ou null se o claim não existir
+     */
+    public static Long extractUserId(JsonWebToken jwt) {
+        Object claim = jwt.getClaim("userId");
+        
+        if (claim == null) {
+            return null;
+        }
+        
+        if (claim instanceof JsonNumber jsonNumber) {
+            return jsonNumber.longValue();
+        }
+        
+        if (claim instanceof Number number) {
+            return number.longValue();
+        }
+        
+        if (claim instanceof String str) {
+            return Long.valueOf(str);
+        }
+        
+        throw new RuntimeException("Formato inesperado para userId: " + claim.getClass());
+    }
+    
+    private long timeToLive(JsonWebToken principal) {
+        long maxNanos = maxTtl.toNanos();
+        long exp = principal.getExpirationTime();
+        if (exp <= 0) {
+            return maxNanos;
+        }
+        long remainingMillis = exp * 1000 - System.currentTimeMillis();
+        return Math.max(0, Math.min(maxNanos, Duration.ofMillis(remainingMillis).toNanos()));
+    }
+    
+    /**
+     * Calcula a chave do cache para um token (SHA-256 em Base64)
+     * 
+     * @param rawToken Token recebido no header Authorization
+     * @return Hash do token
+     */
+    public static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+-- ========================================
+-- Schema inicial do transaction-service
+-- ========================================
+-- Usa "if not exists" para poder ser aplicada sobre bancos já criados
+-- pelo Hibernate (drop-and-create) antes da adoção do Flyway
+
+-- Sequência usada pelo PanacheEntity (Transaction_SEQ, alocação de 50 ids)
+create sequence if not exists transaction_seq start with 1 increment by 50;
+
+create table if not exists transactions (
+    id          bigint         not null,
+    user_id     bigint         not null,
+    description varchar(255)   not null,
+    amount      numeric(10, 2) not null,
+    type        varchar(10)    not null check (type in ('INCOME', 'EXPENSE')),
+    date        date           not null,
+    primary key (id)
+);
+
+-- Listagem e paginação por usuário: where user_id = ? order by date desc, id desc
+-- As colunas em INCLUDE permitem index-only scan sem acessar a tabela
+create index if not exists idx_transactions_user_date
+    on transactions (user_id, date desc, id desc)
+    include (description, amount, type);
+
+-- Filtro por tipo e agregação de receitas/despesas (sum(amount) por type)
+create index if not exists idx_transactions_user_type
+    on transactions (user_id, type, date desc)
+    include (amount);
+
+-- Saldo consolidado por usuário
+create table if not exists user_balances (
+    user_id           bigint         not null,
+    balance           numeric(19, 2) not null,
+    total_income      numeric(19, 2) not null,
+    total_expense     numeric(19, 2) not null,
+    transaction_count bigint         not null,
+    primary key (user_id)
+);
+
+-- Bancos já existentes (baseline-on-migrate) têm transações sem saldo consolidado:
+-- calcula o saldo de cada usuário a partir do histórico. Em banco novo não insere nada
+insert into user_balances (user_id, balance, total_income, total_expense, transaction_count)
+select user_id,
+       sum(case type when 'INCOME' then amount else -amount end),
+       coalesce(sum(case type when 'INCOME' then amount end), 0),
+       coalesce(sum(case type when 'EXPENSE' then amount end), 0),
+       count(*)
+  from transactions
+ group by user_id
+on conflict (user_id) do nothing;
@@ -0,0 +1,2 @@
+-- Versão para controle de concorrência otimista (@Version em Transaction)
+alter table transactions add column if not exists version bigint not null default 0;
@@ -0,0 +1,72 @@
+-- ========================================
+-- Particionamento de transactions por data
+-- ========================================
+-- Uma partição por ano (transactions_y2024, ...) e uma partição default para
+-- datas sem partição. Consultas com filtro de período descartam as demais partições.
+-- Partições antigas são resumidas em transaction_yearly_summaries e movidas para o
+-- schema "archive" pelo PartitionArchiver
+
+alter table transactions rename to transactions_unpartitioned;
+alter table transactions_unpartitioned rename constraint transactions_pkey to transactions_unpartitioned_pkey;
+alter index if exists idx_transactions_user_date rename to idx_transactions_unpartitioned_user_date;
+alter index if exists idx_transactions_user_type rename to idx_transactions_unpartitioned_user_type;
+
+-- A chave de partição precisa fazer parte da chave primária
+create table transactions (
+    id          bigint         not null,
+    user_id     bigint         not null,
+    description varchar(255)   not null,
+    amount      numeric(10, 2) not null,
+    type        varchar(10)    not null check (type in ('INCOME', 'EXPENSE')),
+    date        date           not null,
+    version     bigint         not null default 0,
+    primary key (id, date)
+) partition by range (date);
+
+create table transactions_default partition of transactions default;
+
+-- Partições anuais do primeiro ano com dados até o ano seguinte ao atual
+do $$
+declare
+    first_year int;
+    last_year  int;
+begin
+    select coalesce(cast(extract(year from min(date)) as int), cast(extract(year from current_date) as int)),
+           greatest(coalesce(cast(extract(year from max(date)) as int), 0), cast(extract(year from current_date) as int) + 1)
+      into first_year, last_year
+      from transactions_unpartitioned;
+
+    for y in first_year .. last_year loop
+        execute format('create table transactions_y%s partition of transactions for values from (%L) to (%L)',
+                       y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+    end loop;
+end $$;
+
+insert into transactions (id, user_id, description, amount, type, date, version)
+select id, user_id, description, amount, type, date, version from transactions_unpartitioned;
+
+drop table transactions_unpartitioned;
+
+-- Índices particionados (criados em cada partição)
+create index idx_transactions_user_date
+    on transactions (user_id, date desc, id desc)
+    include (description, amount, type);
+
+create index idx_transactions_user_type
+    on transactions (user_id, type, date desc)
+    include (amount);
+
+-- Totais por usuário e ano das partições arquivadas
+create table transaction_yearly_summaries (
+    user_id           bigint         not null,
+    year              int            not null,
+    total_income      numeric(19, 2) not null,
+    total_expense     numeric(19, 2) not null,
+    transaction_count bigint         not null,
+    primary key (user_id, year)
+);
+
+-- Camada de arquivo: partições desanexadas e linhas antigas da partição default
+create schema if not exists archive;
+
+create table archive.transactions_default (like transactions including defaults);
@@ -0,0 +1,48 @@
+-- ========================================
+-- Ingestão assíncrona e outbox de eventos
+-- ========================================
+-- POST /transactions/ingest grava em transaction_ingest e responde 202;
+-- o IngestDrainer move as linhas pendentes para transactions, em ordem de id,
+-- e registra um evento em transaction_outbox na mesma transação
+
+create table transaction_ingest (
+    id             bigint generated by default as identity,
+    user_id        bigint         not null,
+    description    varchar(255)   not null,
+    amount         numeric(10, 2) not null,
+    type           varchar(10)    not null check (type in ('INCOME', 'EXPENSE')),
+    date           date           not null,
+    status         varchar(10)    not null check (status in ('PENDING', 'DONE')),
+    transaction_id bigint,
+    created_at     timestamp(6) with time zone not null,
+    processed_at   timestamp(6) with time zone,
+    primary key (id)
+);
+
+-- Fila de pendentes (pequena): where status = 'PENDING' order by id
+create index idx_transaction_ingest_pending
+    on transaction_ingest (id)
+    where status = 'PENDING';
+
+-- Limpeza das linhas já processadas
+create index idx_transaction_ingest_processed
+    on transaction_ingest (processed_at)
+    where status = 'DONE';
+
+create table transaction_outbox (
+    id             bigint generated always as identity,
+    event_type     varchar(20)    not null,
+    user_id        bigint         not null,
+    transaction_id bigint         not null,
+    amount         numeric(10, 2) not null,
+    type           varchar(10)    not null,
+    date           date           not null,
+    created_at     timestamp(6) with time zone not null default now(),
+    published_at   timestamp(6) with time zone,
+    primary key (id)
+);
+
+-- Eventos ainda não publicados, em ordem
+create index idx_transaction_outbox_unpublished
+    on transaction_outbox (id)
+    where published_at is null;
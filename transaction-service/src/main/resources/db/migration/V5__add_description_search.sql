@@ -0,0 +1,20 @@
+-- ========================================
+-- Busca por descrição (GET /transactions/search)
+-- ========================================
+-- Texto completo: tsvector gerado a partir da descrição (configuração "simple",
+-- sem stemming, já que as descrições misturam idiomas e nomes próprios)
+-- Substring/prefixo: trigramas (pg_trgm) para ILIKE '%...%'
+-- btree_gin permite incluir user_id nos índices GIN, restringindo a busca ao usuário
+
+create extension if not exists pg_trgm;
+create extension if not exists btree_gin;
+
+alter table transactions
+    add column description_tsv tsvector
+    generated always as (to_tsvector('simple', description)) stored;
+
+create index idx_transactions_description_tsv
+    on transactions using gin (user_id, description_tsv);
+
+create index idx_transactions_description_trgm
+    on transactions using gin (user_id, description gin_trgm_ops);
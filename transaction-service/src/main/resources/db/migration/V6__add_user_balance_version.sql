@@ -0,0 +1,9 @@
+-- ========================================
+-- Versão de alteração por usuário (ETag de GET /transactions e /transactions/balance)
+-- ========================================
+-- Incrementada na mesma transação de toda escrita que muda as transações do usuário
+-- (criação, alteração, remoção, lotes, ingestão e arquivamento); a validação de um
+-- If-None-Match custa uma leitura por chave primária, sem tocar em transactions
+
+alter table user_balances
+    add column if not exists version bigint not null default 0;
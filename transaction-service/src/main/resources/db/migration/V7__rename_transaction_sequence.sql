@@ -0,0 +1,20 @@
+-- ========================================
+-- Nome da sequência de ids de transactions
+-- ========================================
+-- O Hibernate procura a sequência do PanacheEntity pelo nome da tabela (transactions_seq);
+-- a V1 a criou como transaction_seq e as inserções via JPA falhavam em bancos novos.
+-- Bancos criados pelo Hibernate antes do Flyway já têm transactions_seq: nesse caso a
+-- transaction_seq criada pela V1 nunca foi usada pelo JPA e é removida
+
+do $$
+begin
+    if to_regclass('transactions_seq') is null then
+        alter sequence transaction_seq rename to transactions_seq;
+    else
+        drop sequence if exists transaction_seq;
+    end if;
+end $$;
+
+-- O próximo bloco de 50 ids começa acima de qualquer id já gravado
+select setval('transactions_seq', greatest(last_value, (select coalesce(max(id), 0) from transactions), 1))
+from transactions_seq;
@@ -0,0 +1,42 @@
+-- ========================================
+-- Filas de ingestão e outbox só com o que falta processar
+-- ========================================
+-- O IngestDrainer e o OutboxRelay travam o lote com FOR UPDATE SKIP LOCKED e apagam
+-- as linhas processadas na mesma transação, em vez de marcá-las: uma linha com id
+-- menor que só fica visível depois (commit atrasado) continua na fila e é pega na
+-- próxima rodada. O status de uma ingestão já gravada (GET /transactions/ingest/{id})
+-- passa a vir de transaction_ingest_results, mantida pelo período de retenção
+
+create table transaction_ingest_results (
+    id             bigint not null,
+    user_id        bigint not null,
+    transaction_id bigint not null,
+    processed_at   timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- Limpeza dos resultados após o período de retenção
+create index idx_transaction_ingest_results_processed
+    on transaction_ingest_results (processed_at);
+
+insert into transaction_ingest_results (id, user_id, transaction_id, processed_at)
+select id, user_id, transaction_id, processed_at
+from transaction_ingest
+where status = 'DONE';
+
+delete from transaction_ingest where status = 'DONE';
+
+-- Os índices parciais por status saem junto com as colunas; a ordem de chegada usa a chave primária
+alter table transaction_ingest
+    drop column status,
+    drop column transaction_id,
+    drop column processed_at;
+
+-- Leitura consistente: pendentes de um usuário
+create index idx_transaction_ingest_user
+    on transaction_ingest (user_id, id);
+
+delete from transaction_outbox where published_at is not null;
+
+alter table transaction_outbox
+    drop column published_at;
@@ -0,0 +1,419 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.dto.*;
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.UserBalance;
+import com.finance.transaction.event.TransactionsChanged;
+import com.finance.transaction.ratelimit.RateLimited;
+import com.finance.transaction.security.CurrentUser;
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.quarkus.security.Authenticated;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Endpoints de transações sobre o cliente reativo do PostgreSQL
+ * Só existe no perfil de build "reactive" (./mvnw package -Preactive), que adiciona
+ * src/reactive/java e o cliente reativo ao build: as consultas rodam no event loop,
+ * sem ocupar threads de worker nem conexões JDBC.
+ * Cobre leitura, criação, alteração e remoção; lote, ingestão, busca, exportação e
+ * estatísticas ficam só no TransactionResource (escopo reduzido desta variante)
+ * 
+ * Os ids vêm da mesma sequência do Hibernate: cada nextval reserva um bloco de 50 ids
+ * só para quem o chamou, então o valor retornado nunca é usado por outra instância
+ */
+@Path("/reactive/transactions")
+@Produces(MediaType.APPLICATION_JSON)
+@Authenticated
+@RateLimited("transactions")
+@IfBuildProfile("reactive")
+public class ReactiveTransactionResource {
+    
+    private static final String COLUMNS = "select id, user_id, description, amount, type, date, version from transactions ";
+    private static final String RETURNING = " returning id, user_id, description, amount, type, date, version";
+    
+    /**
+     * Mesmo SQL das consultas nativas do Hibernate, com os parâmetros ?n trocados por $n
+     */
+    private static final String APPLY_LEDGER = positional(UserBalance.APPLY_SQL);
+    private static final String SUMMARIZE = positional(Transaction.SUMMARIZE_SQL);
+    private static final String INSERT = "insert into transactions (id, user_id, description, amount, type, date, version) "
+            + "values (nextval('" + Transaction.ID_SEQUENCE + "'), $1, $2, $3, $4, $5, 0)" + RETURNING;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    @Inject
+    PgPool client;
+    
+    @Inject
+    CurrentUser currentUser;
+    
+    @Inject
+    Event<TransactionsChanged> transactionsChanged;
+    
+    @ConfigProperty(name = "finance.transactions.require-version", defaultValue = "true")
+    boolean requireVersion;
+    
+    private Long getUserIdFromToken() {
+        return currentUser.id();
+    }
+    
+    /**
+     * Lista uma página de transações do usuário (paginação por cursor)
+     */
+    @GET
+    @RolesAllowed("USER")
+    @RateLimited("transactions-list")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<Response> list(@QueryParam("limit") String limitParam, @QueryParam("cursor") String cursor) {
+        Integer limit;
+        try {
+            limit = TransactionResource.parseLimit(limitParam);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build());
+        }
+        
+        Long userId = getUserIdFromToken();
+        
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("limit deve estar entre 1 e " + MAX_PAGE_SIZE))
+                    .build());
+        }
+        
+        Uni<RowSet<Row>> rows;
+        if (cursor == null) {
+            rows = client.preparedQuery(COLUMNS + "where user_id = $1 order by date desc, id desc limit $2")
+                    .execute(Tuple.of(userId, pageSize));
+        } else {
+            PageCursor after;
+            try {
+                after = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse(e.getMessage()))
+                        .build());
+            }
+            rows = client.preparedQuery(COLUMNS + "where user_id = $1 and (date, id) < ($2, $3) "
+                                        + "order by date desc, id desc limit $4")
+                    .execute(Tuple.of(userId, after.date, after.id, pageSize));
+        }
+        
+        return rows.map(result -> {
+            List<TransactionResponse> items = new ArrayList<>(result.size());
+            for (Row row : result) {
+                items.add(toResponse(row));
+            }
+            
+            String nextCursor = null;
+            if (items.size() == pageSize) {
+                TransactionResponse last = items.get(items.size() - 1);
+                nextCursor = new PageCursor(last.date, last.id).encode();
+            }
+            
+            return Response.ok(new TransactionPageResponse(items, nextCursor)).build();
+        });
+    }
+    
+    /**
+     * Exporta todas as transações do usuário em NDJSON, lidas com cursor do banco
+     * e enviadas conforme o cliente consome (backpressure)
+     */
+    @GET
+    @Path("/stream")
+    @Produces("application/x-ndjson")
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @RolesAllowed("USER")
+    @RateLimited("transactions-list")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Multi<TransactionResponse> stream() {
+        Long userId = getUserIdFromToken();
+        
+        return Multi.createFrom().resourceFromUni(
+                        () -> client.getConnection(),
+                        conn -> conn.begin().onItem().transformToMulti(tx -> conn
+                                .prepare(COLUMNS + "where user_id = $1 order by date desc, id desc")
+                                .onItem().transformToMulti(statement -> statement
+                                        .createStream(STREAM_FETCH_SIZE, Tuple.of(userId))
+                                        .toMulti())))
+                .withFinalizer(conn -> {
+                    return conn.close();
+                })
+                .map(this::toResponse);
+    }
+    
+    /**
+     * Busca uma transação específica
+     */
+    @GET
+    @Path("/{id}")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<Response> getById(@PathParam("id") Long id) {
+        Long userId = getUserIdFromToken();
+        
+        return client.preparedQuery(COLUMNS + "where id = $1 and user_id = $2")
+                .execute(Tuple.of(id, userId))
+                .map(result -> {
+                    if (result.size() == 0) {
+                        return Response.status(Response.Status.NOT_FOUND)
+                                .entity(new ErrorResponse("Transação não encontrada"))
+                                .build();
+                    }
+                    return Response.ok(toResponse(result.iterator().next())).build();
+                });
+    }
+    
+    /**
+     * Obtém o saldo do usuário a partir do saldo consolidado
+     */
+    @GET
+    @Path("/balance")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<BalanceResponse> getBalance() {
+        Long userId = getUserIdFromToken();
+        
+        return client.preparedQuery("select balance, total_income, total_expense, transaction_count "
+                                    + "from user_balances where user_id = $1")
+                .execute(Tuple.of(userId))
+                .map(result -> {
+                    if (result.size() == 0) {
+                        return new BalanceResponse(BigDecimal.ZERO, BigDecimal.ZERO, 
+                                                   BigDecimal.ZERO, userId, 0L);
+                    }
+                    Row row = result.iterator().next();
+                    return new BalanceResponse(row.getBigDecimal("balance"), 
+                            row.getBigDecimal("total_income"), row.getBigDecimal("total_expense"), 
+                            userId, row.getLong("transaction_count"));
+                });
+    }
+    
+    /**
+     * Obtém o resumo do usuário calculado em uma única consulta agregada
+     */
+    @GET
+    @Path("/summary")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<BalanceResponse> getSummary() {
+        Long userId = getUserIdFromToken();
+        
+        return client.preparedQuery(SUMMARIZE)
+                .execute(Tuple.of(userId))
+                .map(result -> {
+                    Row row = result.iterator().next();
+                    BigDecimal income = row.getBigDecimal("income");
+                    BigDecimal expense = row.getBigDecimal("expense");
+                    return new BalanceResponse(income.subtract(expense), income, expense, 
+                                               userId, row.getLong("total"));
+                });
+    }
+    
+    /**
+     * Cria uma nova transação e atualiza o saldo na mesma transação do banco
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<Response> create(TransactionRequest request) {
+        String error = TransactionResource.validate(request);
+        if (error != null) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(error))
+                    .build());
+        }
+        
+        Long userId = getUserIdFromToken();
+        Money amount = Money.of(request.amount);
+        LocalDate date = request.date != null ? request.date : LocalDate.now();
+        
+        return client.withTransaction(conn -> conn
+                        .preparedQuery(INSERT)
+                        .execute(Tuple.of(userId, request.description, amount.toBigDecimal(), 
+                                          request.type.name(), date))
+                        .call(rows -> applyLedger(conn, userId, request.type, amount, 1)))
+                .call(rows -> changed(userId))
+                .map(rows -> Response.status(Response.Status.CREATED)
+                        .entity(toResponse(rows.iterator().next()))
+                        .build());
+    }
+    
+    /**
+     * Altera uma transação com um único UPDATE ... RETURNING (mesma semântica do
+     * TransactionResource: campos nulos mantêm o valor; versão verificada e obrigatória,
+     * salvo com finance.transactions.require-version=false)
+     */
+    @PUT
+    @Path("/{id}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<Response> update(@PathParam("id") Long id, TransactionRequest request) {
+        if (request == null) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Transação é obrigatória"))
+                    .build());
+        }
+        if (request.version == null && requireVersion) {
+            return Uni.createFrom().item(TransactionResource.versionRequired());
+        }
+        
+        String error = TransactionResource.validateUpdate(request);
+        if (error != null) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse(error))
+                    .build());
+        }
+        
+        Long userId = getUserIdFromToken();
+        Money amount = Money.of(request.amount);
+        
+        String sql = "update transactions t set "
+                + "description = coalesce(cast($3 as varchar), t.description), "
+                + "amount = coalesce(cast($4 as numeric), t.amount), "
+                + "type = coalesce(cast($5 as varchar), t.type), "
+                + "date = coalesce(cast($6 as date), t.date), "
+                + "version = t.version + 1 "
+                + "from (select id, amount, type from transactions "
+                + "where id = $1 and user_id = $2 for update) old "
+                + "where t.id = old.id and (cast($7 as bigint) is null or t.version = $7) "
+                + "returning t.id, t.user_id, t.description, t.amount, t.type, t.date, t.version, "
+                + "old.amount as old_amount, old.type as old_type";
+        List<Object> params = new ArrayList<>(List.of(id, userId));
+        params.add(request.description);
+        params.add(amount != null ? amount.toBigDecimal() : null);
+        params.add(request.type != null ? request.type.name() : null);
+        params.add(request.date);
+        params.add(request.version);
+        
+        return client.withTransaction(conn -> conn.preparedQuery(sql)
+                        .execute(Tuple.tuple(params))
+                        .call(rows -> {
+                            if (rows.size() == 0) {
+                                return Uni.createFrom().voidItem();
+                            }
+                            Row row = rows.iterator().next();
+                            TransactionType oldType = TransactionType.valueOf(row.getString("old_type"));
+                            Money oldAmount = Money.of(row.getBigDecimal("old_amount"));
+                            TransactionType newType = TransactionType.valueOf(row.getString("type"));
+                            Money newAmount = Money.of(row.getBigDecimal("amount"));
+                            // Sempre passa pelo upsert: mesmo sem mudar o saldo, a versão avança
+                            return applyLedger(conn, userId,
+                                    incomeOf(newType, newAmount).minus(incomeOf(oldType, oldAmount)),
+                                    expenseOf(newType, newAmount).minus(expenseOf(oldType, oldAmount)), 0);
+                        }))
+                .flatMap(rows -> {
+                    if (rows.size() > 0) {
+                        return changed(userId).replaceWith(Response.ok(toResponse(rows.iterator().next())).build());
+                    }
+                    return client.preparedQuery("select 1 from transactions where id = $1 and user_id = $2")
+                            .execute(Tuple.of(id, userId))
+                            .map(exists -> exists.size() > 0
+                                    ? Response.status(Response.Status.CONFLICT)
+                                            .entity(new ErrorResponse("Transação alterada por outra requisição"))
+                                            .build()
+                                    : notFound());
+                });
+    }
+    
+    /**
+     * Remove uma transação com um único DELETE ... RETURNING e ajusta o saldo
+     */
+    @DELETE
+    @Path("/{id}")
+    @RolesAllowed("USER")
+    @Timed(value = "transactions.reactive.requests", histogram = true)
+    public Uni<Response> delete(@PathParam("id") Long id) {
+        Long userId = getUserIdFromToken();
+        
+        return client.withTransaction(conn -> conn
+                        .preparedQuery("delete from transactions where id = $1 and user_id = $2" + RETURNING)
+                        .execute(Tuple.of(id, userId))
+                        .call(rows -> {
+                            if (rows.size() == 0) {
+                                return Uni.createFrom().voidItem();
+                            }
+                            Row row = rows.iterator().next();
+                            return applyLedger(conn, userId, TransactionType.valueOf(row.getString("type")),
+                                    Money.of(row.getBigDecimal("amount")).negate(), -1);
+                        }))
+                .flatMap(rows -> rows.size() == 0
+                        ? Uni.createFrom().item(notFound())
+                        : changed(userId).replaceWith(Response.noContent().build()));
+    }
+    
+    private Uni<RowSet<Row>> applyLedger(SqlConnection conn, Long userId, TransactionType type, 
+                                         Money amount, long countDelta) {
+        return applyLedger(conn, userId, incomeOf(type, amount), expenseOf(type, amount), countDelta);
+    }
+    
+    private Uni<RowSet<Row>> applyLedger(SqlConnection conn, Long userId, Money incomeDelta, 
+                                         Money expenseDelta, long countDelta) {
+        return conn.preparedQuery(APPLY_LEDGER)
+                .execute(Tuple.of(userId, incomeDelta.toBigDecimal(), expenseDelta.toBigDecimal(), countDelta));
+    }
+    
+    /**
+     * Publica a alteração (invalida os caches de saldo e resumo) depois do commit
+     * A invalidação bloqueia, então sai do event loop para um worker
+     */
+    private Uni<Void> changed(Long userId) {
+        return Uni.createFrom().voidItem()
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .invoke(() -> transactionsChanged.fire(new TransactionsChanged(userId)));
+    }
+    
+    private static String positional(String sql) {
+        return sql.replace('?', '$');
+    }
+    
+    private static Money incomeOf(TransactionType type, Money amount) {
+        return type == TransactionType.INCOME ? amount : Money.ZERO;
+    }
+    
+    private static Money expenseOf(TransactionType type, Money amount) {
+        return type == TransactionType.EXPENSE ? amount : Money.ZERO;
+    }
+    
+    private static Response notFound() {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Transação não encontrada"))
+                .build();
+    }
+    
+    private TransactionResponse toResponse(Row row) {
+        TransactionResponse response = new TransactionResponse(row.getLong("id"), row.getLong("user_id"), 
+                row.getString("description"), row.getBigDecimal("amount"), 
+                TransactionType.valueOf(row.getString("type")), row.getLocalDate("date"));
+        response.version = row.getLong("version");
+        return response;
+    }
+}
@@ -0,0 +1,100 @@
+package com.finance.transaction;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aplica as migrações sobre um banco criado pelo Hibernate antes do Flyway
+ * (baseline-on-migrate, como em application.properties) e confere que o saldo
+ * consolidado dos usuários já existentes é calculado a partir do histórico
+ */
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class FlywayMigrationTest {
+    
+    @Test
+    void backfillsBalancesOfExistingDatabase() throws SQLException {
+        String url = PostgresTestDatabase.createDatabase("migration_test");
+        
+        try (Connection connection = PostgresTestDatabase.connect(url);
+             Statement statement = connection.createStatement()) {
+            // Schema gerado pelo Hibernate (drop-and-create) antes da adoção do Flyway
+            statement.execute("create sequence transactions_seq start with 1 increment by 50");
+            statement.execute("create table transactions (amount numeric(10,2) not null, date date not null, "
+                    + "id bigint not null, user_id bigint not null, type varchar(10) not null "
+                    + "check (type in ('INCOME','EXPENSE')), description varchar(255) not null, primary key (id))");
+            statement.execute("insert into transactions values "
+                    + "(1000.00, date '2024-01-05', 1, 7, 'INCOME', 'Salário'), "
+                    + "(150.25, date '2024-01-10', 2, 7, 'EXPENSE', 'Mercado'), "
+                    + "(49.75, date '2025-03-02', 3, 7, 'EXPENSE', 'Farmácia'), "
+                    + "(30.00, date '2025-03-03', 4, 8, 'EXPENSE', 'Café')");
+        }
+        
+        migrate(url);
+        
+        try (Connection connection = PostgresTestDatabase.connect(url);
+             Statement statement = connection.createStatement()) {
+            assertBalance(statement, 7, "800.00", "1000.00", "200.00", 3);
+            assertBalance(statement, 8, "-30.00", "0.00", "30.00", 1);
+            
+            try (ResultSet rs = statement.executeQuery("select count(*) from transactions")) {
+                rs.next();
+                assertEquals(4, rs.getLong(1));
+            }
+
+            // O bloco de ids reservado pelo Hibernate (nextval - 49 até nextval) não colide com os existentes
+            try (ResultSet rs = statement.executeQuery("select nextval('transactions_seq') - 49")) {
+                rs.next();
+                assertTrue(rs.getLong(1) > 4);
+            }
+        }
+    }
+    
+    @Test
+    void newDatabaseStartsWithoutBalances() throws SQLException {
+        String url = PostgresTestDatabase.createDatabase("migration_empty_test");
+        
+        migrate(url);
+        
+        try (Connection connection = PostgresTestDatabase.connect(url);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from user_balances")) {
+            rs.next();
+            assertEquals(0, rs.getLong(1));
+        }
+    }
+    
+    private static void migrate(String url) {
+        Flyway.configure()
+                .dataSource(url, PostgresTestDatabase.username(), PostgresTestDatabase.password())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+    
+    private static void assertBalance(Statement statement, long userId, String balance, String income,
+                                      String expense, long count) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("select balance, total_income, total_expense, "
+                + "transaction_count, version from user_balances where user_id = " + userId)) {
+            assertTrue(rs.next(), "Saldo do usuário " + userId + " não foi criado");
+            assertEquals(new BigDecimal(balance), rs.getBigDecimal(1));
+            assertEquals(new BigDecimal(income), rs.getBigDecimal(2));
+            assertEquals(new BigDecimal(expense), rs.getBigDecimal(3));
+            assertEquals(count, rs.getLong(4));
+            assertEquals(0, rs.getLong(5));
+            assertFalse(rs.next());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.finance.transaction;
+
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Servidor PostgreSQL dos testes de banco
+ * Usa o servidor informado em -Dfinance.test.postgres.url (ex.: jdbc:postgresql://localhost:5432/postgres,
+ * com finance.test.postgres.username/password) ou, havendo Docker, um container postgres:16.
+ * Cada teste cria o próprio banco, para não depender da ordem de execução
+ */
+public final class PostgresTestDatabase {
+    
+    private static final String URL = "finance.test.postgres.url";
+    
+    private static PostgreSQLContainer<?> container;
+    
+    private PostgresTestDatabase() {
+    }
+    
+    /**
+     * Há um servidor disponível (usado em @EnabledIf pelos testes de banco)
+     */
+    public static boolean available() {
+        return System.getProperty(URL) != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+    
+    public static String username() {
+        return System.getProperty(URL) != null
+                ? System.getProperty("finance.test.postgres.username", "postgres")
+                : server().getUsername();
+    }
+    
+    public static String password() {
+        return System.getProperty(URL) != null
+                ? System.getProperty("finance.test.postgres.password", "postgres")
+                : server().getPassword();
+    }
+    
+    /**
+     * Recria um banco vazio e retorna a URL JDBC dele
+     */
+    public static String createDatabase(String name) {
+        String serverUrl = serverUrl();
+        try (Connection connection = DriverManager.getConnection(serverUrl, username(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop database if exists " + name + " with (force)");
+            statement.execute("create database " + name);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível criar o banco de teste " + name, e);
+        }
+        return serverUrl.substring(0, serverUrl.lastIndexOf('/') + 1) + name;
+    }
+    
+    public static Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, username(), password());
+    }
+    
+    private static String serverUrl() {
+        String url = System.getProperty(URL);
+        return url != null ? url : server().getJdbcUrl();
+    }
+    
+    private static synchronized PostgreSQLContainer<?> server() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        return container;
+    }
+}
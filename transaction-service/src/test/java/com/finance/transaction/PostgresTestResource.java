@@ -0,0 +1,25 @@
+package com.finance.transaction;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.util.Map;
+
+/**
+ * Aponta o datasource dos testes @QuarkusTest para um banco novo no PostgreSQL de teste
+ * (o Flyway aplica as migrações na inicialização, como em produção)
+ */
+public class PostgresTestResource implements QuarkusTestResourceLifecycleManager {
+    
+    @Override
+    public Map<String, String> start() {
+        String url = PostgresTestDatabase.createDatabase("transaction_test");
+        return Map.of(
+                "quarkus.datasource.jdbc.url", url,
+                "quarkus.datasource.username", PostgresTestDatabase.username(),
+                "quarkus.datasource.password", PostgresTestDatabase.password());
+    }
+    
+    @Override
+    public void stop() {
+    }
+}
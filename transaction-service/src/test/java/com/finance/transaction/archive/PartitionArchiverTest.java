@@ -0,0 +1,136 @@
+package com.finance.transaction.archive;
+
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.dto.BalanceResponse;
+import com.finance.transaction.dto.StatsBucketResponse;
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.UserBalance;
+import com.finance.transaction.resource.TestUsers;
+import com.finance.transaction.resource.TransactionResource;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arquiva uma partição anual e uma linha antiga da partição default e confere que
+ * saldo, resumo e estatísticas do usuário não mudam; só a listagem perde o detalhe
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class PartitionArchiverTest {
+    
+    private static final long USER_ID = 6201;
+    private static final int ARCHIVED_YEAR = 2001;
+    
+    @Inject
+    PartitionArchiver archiver;
+    
+    @Inject
+    TransactionResource resource;
+    
+    @Test
+    @TestSecurity(user = "archive", roles = "USER")
+    void archivingKeepsBalanceSummaryAndStats() {
+        QuarkusMock.installMockForType(TestUsers.user(USER_ID), CurrentUser.class);
+        QuarkusTransaction.requiringNew().run(() -> archiver.createPartition(ARCHIVED_YEAR));
+        
+        create("Salário", "1000.00", TransactionType.INCOME, LocalDate.of(ARCHIVED_YEAR, 3, 5));
+        create("Aluguel", "400.50", TransactionType.EXPENSE, LocalDate.of(ARCHIVED_YEAR, 7, 10));
+        // Sem partição própria: fica na default
+        create("Mercado", "80.25", TransactionType.EXPENSE, LocalDate.of(ARCHIVED_YEAR - 1, 12, 20));
+        create("Salário", "1200.00", TransactionType.INCOME, LocalDate.now());
+        
+        UserBalance balanceBefore = balance();
+        BalanceResponse summaryBefore = summary();
+        List<StatsBucketResponse> statsBefore = stats();
+        assertEquals(4, summaryBefore.transactionCount);
+        assertEquals(4, listed());
+        
+        QuarkusTransaction.requiringNew().run(() -> archiver.archivePartition(ARCHIVED_YEAR));
+        QuarkusTransaction.requiringNew().run(() -> archiver.archiveDefaultRows(LocalDate.of(ARCHIVED_YEAR, 1, 1)));
+        assertFalse(QuarkusTransaction.requiringNew().call(archiver::attachedYears).contains(ARCHIVED_YEAR));
+        
+        UserBalance balanceAfter = balance();
+        assertEquals(balanceBefore.balance, balanceAfter.balance);
+        assertEquals(balanceBefore.totalIncome, balanceAfter.totalIncome);
+        assertEquals(balanceBefore.totalExpense, balanceAfter.totalExpense);
+        assertEquals(balanceBefore.transactionCount, balanceAfter.transactionCount);
+        assertTrue(balanceAfter.version > balanceBefore.version);
+        
+        BalanceResponse summaryAfter = summary();
+        assertEquals(0, summaryBefore.balance.compareTo(summaryAfter.balance));
+        assertEquals(0, summaryBefore.totalIncome.compareTo(summaryAfter.totalIncome));
+        assertEquals(0, summaryBefore.totalExpense.compareTo(summaryAfter.totalExpense));
+        assertEquals(summaryBefore.transactionCount, summaryAfter.transactionCount);
+        
+        List<StatsBucketResponse> statsAfter = stats();
+        assertTotals(statsBefore, statsAfter);
+        assertEquals(3, statsAfter.size());
+        assertBucket(statsAfter.get(0), LocalDate.of(ARCHIVED_YEAR - 1, 1, 1), "0.00", "80.25", 1);
+        assertBucket(statsAfter.get(1), LocalDate.of(ARCHIVED_YEAR, 1, 1), "1000.00", "400.50", 2);
+        assertFalse(statsAfter.get(2).archived);
+        
+        assertEquals(1, listed());
+    }
+    
+    private void create(String description, String amount, TransactionType type, LocalDate date) {
+        assertEquals(201, resource.create(new TransactionRequest(description, new BigDecimal(amount),
+                type, date)).getStatus());
+    }
+    
+    private static UserBalance balance() {
+        return QuarkusTransaction.requiringNew().call(() -> UserBalance.findByUserId(USER_ID));
+    }
+    
+    private BalanceResponse summary() {
+        return (BalanceResponse) resource.getSummary(false).getEntity();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<StatsBucketResponse> stats() {
+        return (List<StatsBucketResponse>) resource.getStats("month", null, null).getEntity();
+    }
+    
+    private static long listed() {
+        return QuarkusTransaction.requiringNew().call(() -> Transaction.count("userId", USER_ID));
+    }
+    
+    private static void assertTotals(List<StatsBucketResponse> before, List<StatsBucketResponse> after) {
+        assertEquals(0, sum(before, true).compareTo(sum(after, true)));
+        assertEquals(0, sum(before, false).compareTo(sum(after, false)));
+        assertEquals(before.stream().mapToLong(bucket -> bucket.transactionCount).sum(),
+                after.stream().mapToLong(bucket -> bucket.transactionCount).sum());
+    }
+    
+    private static BigDecimal sum(List<StatsBucketResponse> buckets, boolean income) {
+        return buckets.stream()
+                .map(bucket -> income ? bucket.totalIncome : bucket.totalExpense)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    private static void assertBucket(StatsBucketResponse bucket, LocalDate period, String income,
+                                     String expense, long count) {
+        assertEquals(period, bucket.period);
+        assertEquals(0, new BigDecimal(income).compareTo(bucket.totalIncome));
+        assertEquals(0, new BigDecimal(expense).compareTo(bucket.totalExpense));
+        assertEquals(count, bucket.transactionCount);
+        assertTrue(bucket.archived);
+    }
+}
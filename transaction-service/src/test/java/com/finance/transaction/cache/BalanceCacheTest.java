@@ -0,0 +1,107 @@
+package com.finance.transaction.cache;
+
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.dto.BalanceResponse;
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.TransactionTotals;
+import com.finance.transaction.entity.UserBalance;
+import com.finance.transaction.resource.TestUsers;
+import com.finance.transaction.resource.TransactionResource;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Depois de uma escrita, a próxima leitura do resumo recarrega a entrada
+ * e a seguinte volta a ser servida pelo cache
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class BalanceCacheTest {
+    
+    @Inject
+    BalanceCache balanceCache;
+    
+    @Inject
+    TransactionResource resource;
+    
+    @Test
+    @TestSecurity(user = "cache", roles = "USER")
+    void writeInvalidatesAndNextReadIsCached() {
+        long userId = 6101;
+        QuarkusMock.installMockForType(TestUsers.user(userId), CurrentUser.class);
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, BalanceResponse> loader = countingLoader(loads);
+        
+        assertEquals(0, read(userId, loader).transactionCount);
+        read(userId, loader);
+        assertEquals(1, loads.get());
+        
+        resource.create(new TransactionRequest("Salário", new BigDecimal("100.00"),
+                                               TransactionType.INCOME, LocalDate.now()));
+        
+        assertEquals(1, read(userId, loader).transactionCount);
+        assertEquals(2, loads.get());
+        assertEquals(1, read(userId, loader).transactionCount);
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void staleEntryIsReloadedThroughTheCache() {
+        long userId = 6102;
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, BalanceResponse> loader = countingLoader(loads);
+        
+        read(userId, loader);
+        assertEquals(1, loads.get());
+        
+        // Escrita cuja invalidação não chegou (ex.: evento ainda na outbox)
+        QuarkusTransaction.requiringNew().run(() -> UserBalance.touch(userId));
+        
+        BalanceResponse refreshed = read(userId, loader);
+        assertEquals(2, loads.get());
+        assertEquals(currentVersion(userId), refreshed.version);
+        
+        read(userId, loader);
+        assertEquals(2, loads.get());
+    }
+    
+    private BalanceResponse read(long userId, Function<Long, BalanceResponse> loader) {
+        return balanceCache.summary(userId, currentVersion(userId), loader);
+    }
+    
+    private static long currentVersion(long userId) {
+        return QuarkusTransaction.requiringNew().call(() -> UserBalance.versionOf(userId));
+    }
+    
+    /**
+     * Mesmo cálculo do endpoint (versão lida antes dos totais), contando as cargas
+     */
+    private static Function<Long, BalanceResponse> countingLoader(AtomicInteger loads) {
+        return userId -> QuarkusTransaction.requiringNew().call(() -> {
+            loads.incrementAndGet();
+            long version = UserBalance.versionOf(userId);
+            TransactionTotals totals = Transaction.summarize(userId);
+            BalanceResponse response = new BalanceResponse(totals.balance(), totals.totalIncome,
+                    totals.totalExpense, userId, totals.transactionCount);
+            response.version = version;
+            return response;
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.finance.transaction.entity;
+
+import com.finance.transaction.PostgresTestDatabase;
+import com.finance.transaction.PostgresTestResource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica com EXPLAIN no PostgreSQL, sobre o schema particionado das migrações,
+ * que as consultas emitidas pelos métodos de Transaction usam os índices por usuário
+ * O SQL é o que o Hibernate realmente enviou (lido de pg_stat_activity por outra
+ * conexão) e o plano é o genérico, o mesmo usado para qualquer valor dos parâmetros
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class TransactionQueryPlanTest {
+
+    private static final long USER_ID = 7;
+    private static boolean populated;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String url;
+
+    @BeforeEach
+    void populate() {
+        if (populated) {
+            return;
+        }
+        // 200 usuários com 300 transações cada, espalhadas pelos últimos dois anos e meio
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery(
+                "insert into transactions (id, user_id, description, amount, type, date) "
+                + "select 100000000 + g, 1000 + g % 200, 'Transação ' || g, (g % 1000) + 0.5, "
+                + "case when g % 4 = 0 then 'INCOME' else 'EXPENSE' end, current_date - (g % 900) "
+                + "from generate_series(1, 60000) g").executeUpdate());
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery("analyze transactions")
+                .executeUpdate());
+        populated = true;
+    }
+
+    @Test
+    void pageUsesIndex() throws SQLException {
+        assertUsesIndex(planOf(() -> Transaction.findPageByUserId(1000 + USER_ID, null, null, null, null, null, 50)));
+    }
+
+    @Test
+    void keysetPageUsesIndex() throws SQLException {
+        assertUsesIndex(planOf(() -> Transaction.findPageByUserId(1000 + USER_ID, null, null, null,
+                LocalDate.now().minusDays(30), 100000500L, 50)));
+    }
+
+    @Test
+    void periodAndTypeFilterUsesIndex() throws SQLException {
+        assertUsesIndex(planOf(() -> Transaction.findByUserId(1000 + USER_ID, LocalDate.now().minusMonths(1),
+                LocalDate.now(), Transaction.TransactionType.INCOME)));
+    }
+
+    @Test
+    void summaryUsesIndex() throws SQLException {
+        assertUsesIndex(planOf(() -> Transaction.summarize(1000 + USER_ID)));
+    }
+
+    @Test
+    void statsUseIndex() throws SQLException {
+        assertUsesIndex(planOf(() -> Transaction.sumByPeriod(1000 + USER_ID, "month", null, null)));
+    }
+
+    /**
+     * Executa a consulta e retorna o plano genérico do SQL que ela enviou ao banco
+     */
+    private String planOf(Runnable query) throws SQLException {
+        String sql = QuarkusTransaction.requiringNew().call(() -> {
+            long pid = ((Number) entityManager.createNativeQuery("select pg_backend_pid()")
+                    .getSingleResult()).longValue();
+            query.run();
+            // Com a transação aberta a conexão fica ociosa, e pg_stat_activity mostra o último comando dela
+            try (Connection connection = PostgresTestDatabase.connect(url);
+                 PreparedStatement statement = connection.prepareStatement(
+                         "select query from pg_stat_activity where pid = ?")) {
+                statement.setLong(1, pid);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+
+        // Protocolo simples: o SQL vai com $1, $2... para o EXPLAIN, sem parâmetros do driver
+        try (Connection connection = PostgresTestDatabase.connect(url + "?preferQueryMode=simple");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("explain (generic_plan) " + sql)) {
+            StringBuilder plan = new StringBuilder(sql).append('\n');
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+
+    /**
+     * Os dados gerados ficam na partição do ano atual e na default; a partição vazia
+     * do ano seguinte é lida sequencialmente (custo zero) e não conta
+     */
+    private static void assertUsesIndex(String plan) {
+        assertTrue(plan.contains("Index"), () -> "Esperado acesso por índice:\n" + plan);
+        for (String partition : new String[] {"transactions_y" + LocalDate.now().getYear(), "transactions_default"}) {
+            assertFalse(plan.contains("Seq Scan on " + partition + " "),
+                    () -> "Leitura sequencial de " + partition + ":\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.finance.transaction.export;
+
+import com.finance.transaction.entity.Money;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Descrições que uma planilha leria como fórmula saem com ' na frente;
+ * as demais são escritas como antes (RFC 4180)
+ */
+class CsvExportWriterTest {
+    
+    @Test
+    void neutralizesFormulas() throws IOException {
+        assertEquals("'=1+1", description("=1+1"));
+        assertEquals("'+1+1", description("+1+1"));
+        assertEquals("'-2+3", description("-2+3"));
+        assertEquals("'@SUM(A1:A2)", description("@SUM(A1:A2)"));
+        assertEquals("'\tcmd", description("\tcmd"));
+    }
+    
+    @Test
+    void quotesNeutralizedFieldsWithSeparators() throws IOException {
+        assertEquals("\"'=1,2\"", description("=1,2"));
+        assertEquals("\"'=\"\"a\"\"\"", description("=\"a\""));
+    }
+    
+    @Test
+    void keepsOrdinaryDescriptions() throws IOException {
+        assertEquals("Mercado", description("Mercado"));
+        assertEquals("Uber - centro", description("Uber - centro"));
+        assertEquals("\"Café, pão\"", description("Café, pão"));
+    }
+    
+    /**
+     * Campo description da linha exportada, como gravado no arquivo
+     */
+    private static String description(String description) throws IOException {
+        Transaction transaction = new Transaction(1L, description, Money.of(new BigDecimal("10.00")),
+                TransactionType.EXPENSE, LocalDate.of(2025, 1, 2));
+        transaction.id = 42L;
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvExportWriter writer = new CsvExportWriter(output);
+        writer.write(transaction);
+        writer.finish();
+        
+        String csv = output.toString(StandardCharsets.UTF_8);
+        String prefix = "id,date,amount,type,description\r\n42,2025-01-02,10.00,EXPENSE,";
+        assertEquals(prefix, csv.substring(0, prefix.length()));
+        return csv.substring(prefix.length(), csv.length() - 2);
+    }
+}
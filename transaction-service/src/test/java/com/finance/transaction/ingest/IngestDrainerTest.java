@@ -0,0 +1,124 @@
+package com.finance.transaction.ingest;
+
+import com.finance.transaction.PostgresTestDatabase;
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.dto.IngestResponse;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.TransactionIngest;
+import com.finance.transaction.resource.TestUsers;
+import com.finance.transaction.resource.TransactionResource;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A fila de ingestão e a outbox apagam o que processam, e uma ingestão com id menor
+ * cujo commit atrasou ainda é gravada (não há marca de posição por id)
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class IngestDrainerTest {
+    
+    private static final long USER_ID = 6301;
+    
+    @Inject
+    IngestDrainer drainer;
+    
+    @Inject
+    OutboxRelay relay;
+    
+    @Inject
+    TransactionResource resource;
+    
+    @Inject
+    EntityManager entityManager;
+    
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String url;
+    
+    @Test
+    @TestSecurity(user = "ingest", roles = "USER")
+    void lateCommitIsDrainedAndProcessedRowsAreDeleted() throws SQLException {
+        QuarkusMock.installMockForType(TestUsers.user(USER_ID), CurrentUser.class);
+        
+        try (Connection late = PostgresTestDatabase.connect(url)) {
+            // Recebe o id menor, mas só fica visível depois do primeiro lote
+            late.setAutoCommit(false);
+            long lateId = insertIngest(late, "Atrasada");
+            
+            long ingestId = QuarkusTransaction.requiringNew().call(() -> {
+                TransactionIngest ingest = new TransactionIngest(USER_ID, "No prazo", new BigDecimal("20.00"),
+                        TransactionType.EXPENSE, LocalDate.now());
+                ingest.persist();
+                return ingest.id;
+            });
+            assertTrue(lateId < ingestId);
+            
+            assertEquals("PENDING", status(ingestId));
+            drainer.drain();
+            assertEquals("DONE", status(ingestId));
+            assertEquals(1, transactions());
+            
+            late.commit();
+            assertEquals("PENDING", status(lateId));
+            drainer.drain();
+            assertEquals("DONE", status(lateId));
+            assertEquals(2, transactions());
+        }
+        
+        assertEquals(0, count("select count(*) from transaction_ingest where user_id = ?1"));
+        assertEquals(2, count("select count(*) from transaction_outbox where user_id = ?1"));
+        
+        relay.relay();
+        assertEquals(0, count("select count(*) from transaction_outbox where user_id = ?1"));
+    }
+    
+    private static long insertIngest(Connection connection, String description) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into transaction_ingest (user_id, description, amount, type, date, created_at) "
+                + "values (?, ?, 10.00, 'EXPENSE', current_date, ?) returning id")) {
+            statement.setLong(1, USER_ID);
+            statement.setString(2, description);
+            statement.setObject(3, OffsetDateTime.now());
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+    
+    private String status(long ingestId) {
+        return ((IngestResponse) resource.getIngest(ingestId).getEntity()).status;
+    }
+    
+    private static long transactions() {
+        return QuarkusTransaction.requiringNew().call(() -> Transaction.count("userId", USER_ID));
+    }
+    
+    private long count(String sql) {
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager.createNativeQuery(sql)
+                .setParameter(1, USER_ID)
+                .getSingleResult()).longValue());
+    }
+}
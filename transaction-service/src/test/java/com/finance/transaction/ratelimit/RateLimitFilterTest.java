@@ -0,0 +1,103 @@
+package com.finance.transaction.ratelimit;
+
+import com.finance.transaction.PostgresTestResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Um token válido sem o claim userId é contado pelo IP do cliente (401 no endpoint,
+ * 429 ao passar do limite), sem derrubar o filtro; tokens com userId têm o próprio limite
+ * Os tokens são assinados com o par de chaves de teste de src/test/resources
+ */
+@QuarkusTest
+@TestProfile(RateLimitFilterTest.SingleRequest.class)
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class RateLimitFilterTest {
+    
+    public static class SingleRequest implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("mp.jwt.verify.publickey.location", "test-publickey.pem",
+                          "finance.rate-limit.enabled", "true",
+                          "finance.rate-limit.transactions.capacity", "1",
+                          "finance.rate-limit.transactions.period", "PT1H");
+        }
+    }
+    
+    private final HttpClient client = HttpClient.newHttpClient();
+    
+    @TestHTTPResource("/transactions/balance")
+    URI balance;
+    
+    @Test
+    void tokenWithoutUserIdIsLimitedByIp() throws Exception {
+        String anonymous = token(null);
+        assertEquals(401, get(anonymous));
+        assertEquals(429, get(anonymous));
+        
+        assertNotEquals(429, get(token(6401L)));
+    }
+    
+    private int get(String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(balance)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    private static String token(Long userId) throws Exception {
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer("https://finance-auth-service");
+        claims.setSubject("rate-limit");
+        claims.setClaim("upn", "rate-limit");
+        claims.setStringListClaim("groups", List.of("USER"));
+        claims.setIssuedAtToNow();
+        claims.setExpirationTimeMinutesInTheFuture(5);
+        if (userId != null) {
+            claims.setClaim("userId", userId);
+        }
+        
+        JsonWebSignature signature = new JsonWebSignature();
+        signature.setPayload(claims.toJson());
+        signature.setKey(privateKey());
+        signature.setAlgorithmHeaderValue(AlgorithmIdentifiers.RSA_USING_SHA256);
+        return signature.getCompactSerialization();
+    }
+    
+    private static PrivateKey privateKey() throws Exception {
+        try (InputStream input = RateLimitFilterTest.class.getResourceAsStream("/test-privatekey.pem")) {
+            String pem = new String(input.readAllBytes(), StandardCharsets.US_ASCII)
+                    .replaceAll("-----[A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return KeyFactory.getInstance("RSA")
+                    .generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(pem)));
+        }
+    }
+}
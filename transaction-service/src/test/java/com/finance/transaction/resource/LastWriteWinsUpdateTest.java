@@ -0,0 +1,68 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.dto.TransactionResponse;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Com finance.transactions.require-version=false, PUT sem versão sobrescreve
+ * a atual; com versão, continua verificada
+ */
+@QuarkusTest
+@TestProfile(LastWriteWinsUpdateTest.OptionalVersion.class)
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class LastWriteWinsUpdateTest {
+    
+    private static final long USER_ID = 6202;
+    
+    public static class OptionalVersion implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("finance.transactions.require-version", "false");
+        }
+    }
+    
+    @Inject
+    TransactionResource resource;
+    
+    @Test
+    @TestSecurity(user = "update", roles = "USER")
+    void updateWithoutVersionOverwrites() {
+        QuarkusMock.installMockForType(TestUsers.user(USER_ID), CurrentUser.class);
+        TransactionResponse created = (TransactionResponse) resource.create(new TransactionRequest("Aluguel",
+                new BigDecimal("1200.00"), TransactionType.EXPENSE, LocalDate.now())).getEntity();
+        
+        TransactionRequest request = new TransactionRequest();
+        request.amount = new BigDecimal("1250.00");
+        Response response = resource.update(created.id, request);
+        
+        assertEquals(200, response.getStatus());
+        TransactionResponse updated = (TransactionResponse) response.getEntity();
+        assertEquals(0, new BigDecimal("1250.00").compareTo(updated.amount));
+        assertEquals(created.version + 1, updated.version);
+        
+        TransactionRequest stale = new TransactionRequest();
+        stale.amount = new BigDecimal("1300.00");
+        stale.version = created.version;
+        assertEquals(409, resource.update(created.id, stale).getStatus());
+    }
+}
@@ -0,0 +1,22 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.security.CurrentUser;
+
+/**
+ * Usuário fixo para testes que chamam os endpoints diretamente
+ * (com @TestSecurity e QuarkusMock.installMockForType, sem um JWT assinado)
+ */
+public final class TestUsers {
+    
+    private TestUsers() {
+    }
+    
+    public static CurrentUser user(long userId) {
+        return new CurrentUser() {
+            @Override
+            public Long id() {
+                return userId;
+            }
+        };
+    }
+}
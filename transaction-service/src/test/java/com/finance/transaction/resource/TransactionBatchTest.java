@@ -0,0 +1,80 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.dto.BatchItemResponse;
+import com.finance.transaction.dto.BatchResponse;
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.entity.Transaction;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.UserBalance;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Uma linha inválida do lote vira um item 400 com o número da linha,
+ * sem derrubar o lote no flush
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class TransactionBatchTest {
+    
+    private static final long USER_ID = 6001;
+    
+    @Inject
+    TransactionResource resource;
+    
+    @BeforeEach
+    void authenticate() {
+        QuarkusMock.installMockForType(TestUsers.user(USER_ID), CurrentUser.class);
+    }
+    
+    @Test
+    @TestSecurity(user = "batch", roles = "USER")
+    void rejectsOversizedLinesAndKeepsTheRest() {
+        Response response = resource.createBatch(List.of(
+                request("Salário", "1000.00", TransactionType.INCOME),
+                request("a".repeat(256), "10.00", TransactionType.EXPENSE),
+                request("Aluguel", "100000000.00", TransactionType.EXPENSE),
+                request("Mercado", "150.25", TransactionType.EXPENSE)));
+        
+        assertEquals(200, response.getStatus());
+        BatchResponse batch = (BatchResponse) response.getEntity();
+        assertEquals(2, batch.created);
+        assertEquals(2, batch.failed);
+        
+        BatchItemResponse description = batch.results.get(1);
+        assertEquals(2, description.line);
+        assertEquals(400, description.status);
+        assertEquals("Descrição deve ter no máximo 255 caracteres", description.error);
+        
+        BatchItemResponse amount = batch.results.get(2);
+        assertEquals(3, amount.line);
+        assertEquals(400, amount.status);
+        assertEquals("Valor deve ser no máximo 99999999.99", amount.error);
+        
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals(2, Transaction.count("userId", USER_ID));
+            assertEquals(new BigDecimal("849.75"), UserBalance.findByUserId(USER_ID).balance);
+        });
+    }
+    
+    private static TransactionRequest request(String description, String amount, TransactionType type) {
+        return new TransactionRequest(description, new BigDecimal(amount), type, LocalDate.now());
+    }
+}
@@ -0,0 +1,64 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.entity.TransactionIngest;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Uma listagem inválida com consistent=true responde 400 sem gravar
+ * as ingestões pendentes do usuário
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class TransactionListTest {
+    
+    private static final long USER_ID = 6002;
+    
+    @Inject
+    TransactionResource resource;
+    
+    @BeforeEach
+    void authenticate() {
+        QuarkusMock.installMockForType(TestUsers.user(USER_ID), CurrentUser.class);
+    }
+    
+    @Test
+    @TestSecurity(user = "list", roles = "USER")
+    void invalidRequestDoesNotDrainIngestion() {
+        Long ingestId = QuarkusTransaction.requiringNew().call(() -> {
+            TransactionIngest ingest = new TransactionIngest(USER_ID, "Pendente", new BigDecimal("10.00"),
+                    TransactionType.EXPENSE, LocalDate.now());
+            ingest.persist();
+            return ingest.id;
+        });
+        
+        Response range = resource.list(null, null, "2025-02-01", "2025-01-01", null, true, null);
+        assertEquals(400, range.getStatus());
+        
+        Response limit = resource.list("0", null, null, null, null, true, null);
+        assertEquals(400, limit.getStatus());
+        
+        Response cursor = resource.list(null, "inválido", null, null, null, true, null);
+        assertEquals(400, cursor.getStatus());
+        
+        QuarkusTransaction.requiringNew().run(() -> assertNotNull(TransactionIngest.findById(ingestId)));
+    }
+}
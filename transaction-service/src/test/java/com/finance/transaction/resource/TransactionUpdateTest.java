@@ -0,0 +1,106 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.PostgresTestResource;
+import com.finance.transaction.dto.ErrorResponse;
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.dto.TransactionResponse;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import com.finance.transaction.security.CurrentUser;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PUT valida só os campos informados (nulos mantêm o valor) e exige a versão
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@EnabledIf("com.finance.transaction.PostgresTestDatabase#available")
+class TransactionUpdateTest {
+    
+    private static final long USER_ID = 6201;
+    
+    @Inject
+    TransactionResource resource;
+    
+    @BeforeEach
+    void authenticate() {
+        QuarkusMock.installMockForType(TestUsers.user(USER_ID), CurrentUser.class);
+    }
+    
+    @Test
+    @TestSecurity(user = "update", roles = "USER")
+    void invalidFieldsAreRejectedWithoutChangingTheTransaction() {
+        TransactionResponse created = create();
+        
+        TransactionRequest description = update(created.version);
+        description.description = "a".repeat(256);
+        assertBadRequest("Descrição deve ter no máximo 255 caracteres", resource.update(created.id, description));
+        
+        TransactionRequest amount = update(created.version);
+        amount.amount = new BigDecimal("100000000.00");
+        assertBadRequest("Valor deve ser no máximo 99999999.99", resource.update(created.id, amount));
+        
+        assertEquals(created.version, ((TransactionResponse) resource.getById(created.id).getEntity()).version);
+    }
+    
+    @Test
+    @TestSecurity(user = "update", roles = "USER")
+    void nullFieldsKeepTheirValue() {
+        TransactionResponse created = create();
+        
+        TransactionRequest request = update(created.version);
+        request.description = "Aluguel de março";
+        Response response = resource.update(created.id, request);
+        
+        assertEquals(200, response.getStatus());
+        TransactionResponse updated = (TransactionResponse) response.getEntity();
+        assertEquals("Aluguel de março", updated.description);
+        assertEquals(0, new BigDecimal("1200.00").compareTo(updated.amount));
+        assertEquals(TransactionType.EXPENSE, updated.type);
+        assertEquals(created.version + 1, updated.version);
+    }
+    
+    @Test
+    @TestSecurity(user = "update", roles = "USER")
+    void versionIsRequiredByDefault() {
+        TransactionResponse created = create();
+        
+        TransactionRequest request = update(null);
+        request.description = "Sem versão";
+        assertEquals(428, resource.update(created.id, request).getStatus());
+        
+        TransactionRequest stale = update(created.version + 1);
+        stale.description = "Versão antiga";
+        assertEquals(409, resource.update(created.id, stale).getStatus());
+    }
+    
+    private TransactionResponse create() {
+        Response response = resource.create(new TransactionRequest("Aluguel", new BigDecimal("1200.00"),
+                TransactionType.EXPENSE, LocalDate.now()));
+        assertEquals(201, response.getStatus());
+        return (TransactionResponse) response.getEntity();
+    }
+    
+    private static TransactionRequest update(Long version) {
+        TransactionRequest request = new TransactionRequest();
+        request.version = version;
+        return request;
+    }
+    
+    private static void assertBadRequest(String message, Response response) {
+        assertEquals(400, response.getStatus());
+        assertEquals(message, ((ErrorResponse) response.getEntity()).message);
+    }
+}
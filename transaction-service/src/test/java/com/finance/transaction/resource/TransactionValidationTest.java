@@ -0,0 +1,80 @@
+package com.finance.transaction.resource;
+
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.entity.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Limites das colunas aplicados na validação, antes de chegar ao banco
+ */
+class TransactionValidationTest {
+    
+    @Test
+    void acceptsDescriptionUpToColumnLength() {
+        assertNull(TransactionResource.validate(request("a".repeat(255), "10.00")));
+    }
+    
+    @Test
+    void rejectsDescriptionLongerThanColumn() {
+        assertEquals("Descrição deve ter no máximo 255 caracteres",
+                TransactionResource.validate(request("a".repeat(256), "10.00")));
+    }
+    
+    @Test
+    void acceptsLargestAmountOfColumn() {
+        assertNull(TransactionResource.validate(request("Salário", "99999999.99")));
+        assertNull(TransactionResource.validate(request("Salário", "99999999.994")));
+    }
+    
+    @Test
+    void rejectsAmountThatOverflowsColumn() {
+        assertEquals("Valor deve ser no máximo 99999999.99",
+                TransactionResource.validate(request("Salário", "100000000")));
+        // Arredondado para centavos passaria do limite
+        assertEquals("Valor deve ser no máximo 99999999.99",
+                TransactionResource.validate(request("Salário", "99999999.995")));
+        // Não cabe nem em um long de centavos (Money.of lançaria ArithmeticException)
+        assertEquals("Valor deve ser no máximo 99999999.99",
+                TransactionResource.validate(request("Salário", "1E+30")));
+    }
+    
+    @Test
+    void rejectsAmountThatRoundsToZero() {
+        assertEquals("Valor deve ser positivo", TransactionResource.validate(request("Café", "0.004")));
+        assertEquals("Valor deve ser positivo", TransactionResource.validate(request("Café", "1E-999999999")));
+        assertNull(TransactionResource.validate(request("Café", "0.005")));
+    }
+    
+    @Test
+    void updateKeepsNullFields() {
+        assertNull(TransactionResource.validateUpdate(new TransactionRequest()));
+    }
+    
+    @Test
+    void updateValidatesFieldsThatAreSent() {
+        TransactionRequest description = new TransactionRequest();
+        description.description = "a".repeat(256);
+        assertEquals("Descrição deve ter no máximo 255 caracteres", TransactionResource.validateUpdate(description));
+        
+        description.description = " ";
+        assertEquals("Descrição é obrigatória", TransactionResource.validateUpdate(description));
+        
+        TransactionRequest amount = new TransactionRequest();
+        amount.amount = new BigDecimal("1E+30");
+        assertEquals("Valor deve ser no máximo 99999999.99", TransactionResource.validateUpdate(amount));
+        
+        amount.amount = new BigDecimal("-1");
+        assertEquals("Valor deve ser positivo", TransactionResource.validateUpdate(amount));
+    }
+    
+    private static TransactionRequest request(String description, String amount) {
+        return new TransactionRequest(description, new BigDecimal(amount), TransactionType.EXPENSE, 
+                                      LocalDate.of(2025, 3, 1));
+    }
+}